@@ -1,5 +1,6 @@
 package org.csstudio.opibuilder.widgets.actions;
 
+import org.csstudio.opibuilder.model.DisplayModel;
 import org.csstudio.opibuilder.widgets.editparts.LinkingContainerEditpart;
 import org.eclipse.core.expressions.PropertyTester;
 import org.eclipse.core.runtime.IPath;
@@ -14,6 +15,7 @@ public class EditableLinkingContainerPropertyTester extends PropertyTester {
      * <ul>
      * <li>the receiver is not a linking container
      * <li>no path can be extracted from the widget
+     * <li>the embedded display is not loaded yet
      * </ul>
      * return false
      *
@@ -26,7 +28,10 @@ public class EditableLinkingContainerPropertyTester extends PropertyTester {
         if (property.equals("isEditable")) {
             if (receiver instanceof LinkingContainerEditpart) {
                 LinkingContainerEditpart lc = (LinkingContainerEditpart) receiver;
-                displayPath = lc.getWidgetModel().getDisplayModel().getOpiFilePath();
+                DisplayModel displayModel = lc.getWidgetModel().getDisplayModel();
+                if (displayModel != null) {
+                    displayPath = displayModel.getOpiFilePath();
+                }
                 embeddedPath = lc.getWidgetModel().getOPIFilePath();
             }
             editable = (displayPath instanceof Path && embeddedPath instanceof Path);
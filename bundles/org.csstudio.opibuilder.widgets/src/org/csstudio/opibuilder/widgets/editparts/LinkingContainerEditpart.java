@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,6 +28,7 @@ import org.csstudio.opibuilder.model.ConnectionModel;
 import org.csstudio.opibuilder.model.DisplayModel;
 import org.csstudio.opibuilder.persistence.XMLUtil;
 import org.csstudio.opibuilder.properties.IWidgetPropertyChangeHandler;
+import org.csstudio.opibuilder.script.ScriptData;
 import org.csstudio.opibuilder.util.GeometryUtil;
 import org.csstudio.opibuilder.util.OPIBuilderMacroUtil;
 import org.csstudio.opibuilder.util.ResourceUtil;
@@ -44,6 +46,7 @@ import org.eclipse.gef.EditPart;
 import org.eclipse.gef.EditPolicy;
 import org.eclipse.gef.GraphicalViewer;
 import org.eclipse.gef.editparts.ZoomListener;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IActionFilter;
 
 /**The Editpart Controller for a linking Container
@@ -106,6 +109,7 @@ public class LinkingContainerEditpart extends AbstractLinkingContainerEditpart{
                     IFigure figure) {
                 if(newValue != null && newValue instanceof IPath){
                     LinkingContainerModel widgetModel = getWidgetModel();
+                    widgetModel.setPendingDisplayModel(null);
                     IPath absolutePath = (IPath)newValue;
                     if(!absolutePath.isAbsolute())
                         absolutePath = ResourceUtil.buildAbsolutePath(
@@ -211,6 +215,11 @@ public class LinkingContainerEditpart extends AbstractLinkingContainerEditpart{
     private synchronized void configureDisplayModel() {
         //This need to be executed after GUI created.
         if(getWidgetModel().getDisplayModel() == null) {
+            CompletableFuture<DisplayModel> pendingDisplayModel = getWidgetModel().getPendingDisplayModel();
+            if (pendingDisplayModel != null) {
+                configureWhenLoaded(pendingDisplayModel);
+                return;
+            }
             IPath path = resolveMacros(getWidgetModel().getOPIFilePath());
             log.info(path.toString());
 
@@ -314,6 +323,35 @@ public class LinkingContainerEditpart extends AbstractLinkingContainerEditpart{
         }
     }
 
+    /**
+     * Configure the display model once it is loaded in the background. Until then the container stays empty, and the
+     * scripts on the display model are registered when it is installed.
+     */
+    private void configureWhenLoaded(CompletableFuture<DisplayModel> pendingDisplayModel) {
+        Display display = getViewer().getControl().getDisplay();
+        pendingDisplayModel.whenComplete((displayModel, e) -> {
+            if (display.isDisposed())
+                return;
+            display.asyncExec(() -> {
+                // Skip if the opi file was changed or the widget was removed in the meantime
+                if (!isActive() || getWidgetModel().getPendingDisplayModel() != pendingDisplayModel)
+                    return;
+                getWidgetModel().setPendingDisplayModel(null);
+                if (e != null) {
+                    // Fall back to loading it here
+                    log.log(Level.WARNING, "Could not load the linking container in the background.", e);
+                } else {
+                    getWidgetModel().setDisplayModel(displayModel);
+                }
+                configureDisplayModel();
+                // The scripts on the display model were added after activate() registered the scripts
+                for (ScriptData scriptData : getWidgetModel().getDisplayModel().getScriptsInput().getScriptList()) {
+                    addScript(scriptData);
+                }
+            });
+        });
+    }
+
     private void updateConnectionList() {
         if (connectionList==null || originalPoints==null)
             return;
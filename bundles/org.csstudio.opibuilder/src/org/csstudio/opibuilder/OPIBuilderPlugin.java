@@ -13,6 +13,7 @@ import java.util.logging.Logger;
 
 import org.csstudio.opibuilder.preferences.NamedColor;
 import org.csstudio.opibuilder.preferences.PreferencesHelper;
+import org.csstudio.opibuilder.script.CompiledScriptCache;
 import org.csstudio.opibuilder.script.ScriptService;
 import org.csstudio.opibuilder.util.GUIRefreshThread;
 import org.csstudio.opibuilder.util.MediaService;
@@ -68,16 +69,16 @@ public class OPIBuilderPlugin extends AbstractUIPlugin {
             }
         });
 
-        // Reload the schema if the change file is somehow related to the active schema
+        // Reload the schema if the change file is somehow related to the active schema.
+        // Also forget about compiled scripts of changed files.
         ResourcesPlugin.getWorkspace().addResourceChangeListener(event -> {
-            IPath schemaPath = PreferencesHelper.getSchemaOPIPath();
-            if (schemaPath != null) {
-                IResourceDelta delta = event.getDelta();
-                if (delta != null) {
-                    List<IPath> allPaths = findAllDeltaPaths(delta);
-                    if (allPaths.contains(schemaPath)) {
-                        SchemaService.getInstance().reload();
-                    }
+            IResourceDelta delta = event.getDelta();
+            if (delta != null) {
+                List<IPath> allPaths = findAllDeltaPaths(delta);
+                CompiledScriptCache.getInstance().invalidate(allPaths);
+                IPath schemaPath = PreferencesHelper.getSchemaOPIPath();
+                if (schemaPath != null && allPaths.contains(schemaPath)) {
+                    SchemaService.getInstance().reload();
                 }
             }
         });
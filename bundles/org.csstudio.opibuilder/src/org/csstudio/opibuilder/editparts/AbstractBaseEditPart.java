@@ -181,53 +181,8 @@ public abstract class AbstractBaseEditPart extends AbstractGraphicalEditPart imp
                         .getRuleDataList()) {
                     scriptDataList.add(rd.convertToScriptData());
                 }
-                for (final ScriptData scriptData : scriptDataList) {
-                    final IPV[] pvArray = new IPV[scriptData.getPVList().size()];
-                    int i = 0;
-                    for (PVTuple pvTuple : scriptData.getPVList()) {
-                        String pvName = pvTuple.pvName;
-                        if (pvMap.containsKey(pvName)) {
-                            pvArray[i] = pvMap.get(pvName);
-                        } else {
-                            try {
-                                IPV pv = BOYPVFactory.createPV(pvName, false, 2);
-                                pvMap.put(pvName, pv);
-                                addToConnectionHandler(pvName, pv);
-                                pvArray[i] = pv;
-                            } catch (Exception e) {
-                                String message = NLS
-                                        .bind("Unable to connect to PV: {0}! \n"
-                                                + "This may cause error when executing the script.",
-                                                pvName);
-                                OPIBuilderPlugin.getLogger().log(Level.WARNING, message, e);
-                                pvArray[i] = null;
-                            }
-                        }
-                        i++;
-                    }
-
-                    ScriptService.getInstance().registerScript(scriptData,
-                            AbstractBaseEditPart.this, pvArray);
-
-                    UIBundlingThread.getInstance().addRunnable(() -> {
-                        if (!isActive()) {
-                            // already deactivated
-                            return;
-                        }
-                        hasStartedPVs = true;
-                        for (IPV pv : pvArray) {
-                            if (pv != null && !pv.isStarted()) {
-                                try {
-                                    pv.start();
-                                } catch (Exception e) {
-                                    OPIBuilderPlugin
-                                            .getLogger()
-                                            .log(Level.WARNING,
-                                                    "Unable to start PV " + pv.getName(), e);
-                                }
-                            }
-                        }
-                    });
+                for (ScriptData scriptData : scriptDataList) {
+                    registerScriptData(scriptData);
                 }
             }
             doActivate();
@@ -238,6 +193,69 @@ public abstract class AbstractBaseEditPart extends AbstractGraphicalEditPart imp
 
     }
 
+    /**
+     * Registers a script, which was added to the scripts input after activation, with the {@link ScriptService}. This
+     * is the case for the scripts of an embedded opi that was loaded in the background. It is unregistered on
+     * {@link #deactivate()}, the same way as the scripts that were registered on activation.
+     *
+     * @param scriptData
+     *            the script to register.
+     */
+    protected void addScript(final ScriptData scriptData) {
+        if (!isActive() || executionMode != ExecutionMode.RUN_MODE)
+            return;
+        scriptDataList.add(scriptData);
+        registerScriptData(scriptData);
+    }
+
+    private void registerScriptData(final ScriptData scriptData) {
+        final IPV[] pvArray = new IPV[scriptData.getPVList().size()];
+        int i = 0;
+        for (PVTuple pvTuple : scriptData.getPVList()) {
+            String pvName = pvTuple.pvName;
+            if (pvMap.containsKey(pvName)) {
+                pvArray[i] = pvMap.get(pvName);
+            } else {
+                try {
+                    IPV pv = BOYPVFactory.createPV(pvName, false, 2);
+                    pvMap.put(pvName, pv);
+                    addToConnectionHandler(pvName, pv);
+                    pvArray[i] = pv;
+                } catch (Exception e) {
+                    String message = NLS
+                            .bind("Unable to connect to PV: {0}! \n"
+                                    + "This may cause error when executing the script.",
+                                    pvName);
+                    OPIBuilderPlugin.getLogger().log(Level.WARNING, message, e);
+                    pvArray[i] = null;
+                }
+            }
+            i++;
+        }
+
+        ScriptService.getInstance().registerScript(scriptData, this, pvArray);
+
+        UIBundlingThread.getInstance().addRunnable(() -> {
+            if (!isActive()) {
+                // already deactivated
+                return;
+            }
+            hasStartedPVs = true;
+            for (IPV pv : pvArray) {
+                if (pv != null && !pv.isStarted()) {
+                    try {
+                        pv.start();
+                    } catch (Exception e) {
+                        OPIBuilderPlugin
+                                .getLogger()
+                                .log(Level.WARNING,
+                                        "Unable to start PV " + pv.getName(), e);
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * Subclass should do the activate things in this method. This method is last called from {@link #activate()}. If
      * there is code to be called as the first thing in {@link #activate()}, it can be put in {@link #doCreateFigure()}.
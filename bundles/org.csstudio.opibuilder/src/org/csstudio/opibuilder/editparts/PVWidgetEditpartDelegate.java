@@ -75,16 +75,17 @@ public class PVWidgetEditpartDelegate implements IPVWidgetEditpart {
             // if(isControlPV)
             // updateWritable(widgetModel, pv);
 
-            if (pv.getValue() != null) {
-                if (ignoreOldPVValue) {
-                    widgetModel.getPVMap()
-                            .get(widgetModel.getProperty(pvPropID))
-                            .setPropertyValue_IgnoreOldValue(pv.getValue());
-                } else {
-                    widgetModel.getPVMap()
-                            .get(widgetModel.getProperty(pvPropID))
-                            .setPropertyValue(pv.getValue());
-                }
+            VType value = pv.getValue();
+            // Notifications that were already queued when the editpart got deactivated
+            if (value == null || !editpart.isActive()) {
+                return;
+            }
+            // Property listeners queue an ignorable UI task, so the figure is still refreshed once per GUI cycle
+            AbstractWidgetProperty property = widgetModel.getPVMap().get(widgetModel.getProperty(pvPropID));
+            if (ignoreOldPVValue) {
+                property.setPropertyValue_IgnoreOldValue(value);
+            } else {
+                property.setPropertyValue(value);
             }
 
         }
@@ -1,5 +1,7 @@
 package org.csstudio.opibuilder.model;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.csstudio.opibuilder.editparts.ExecutionMode;
 import org.csstudio.opibuilder.properties.FilePathProperty;
 import org.csstudio.opibuilder.properties.StringProperty;
@@ -31,6 +33,8 @@ public abstract class AbstractLinkingContainerModel extends AbstractContainerMod
      */
     private DisplayModel displayModel = null;
 
+    private CompletableFuture<DisplayModel> pendingDisplayModel = null;
+
     @Override
     protected void configureBaseProperties() {
         super.configureBaseProperties();
@@ -80,6 +84,23 @@ public abstract class AbstractLinkingContainerModel extends AbstractContainerMod
         return displayModel;
     }
 
+    /**
+     * Set the display model of the opi that is still being loaded in the background. It is up to the editpart to
+     * install it as display model once it is loaded.
+     *
+     * @param pendingDisplayModel
+     */
+    public synchronized void setPendingDisplayModel(CompletableFuture<DisplayModel> pendingDisplayModel) {
+        this.pendingDisplayModel = pendingDisplayModel;
+    }
+
+    /**
+     * @return display model of the opi that is being loaded in the background. null if there is none.
+     */
+    public synchronized CompletableFuture<DisplayModel> getPendingDisplayModel() {
+        return pendingDisplayModel;
+    }
+
     public synchronized void setDisplayModelViewer(GraphicalViewer viewer) {
         this.displayModel.setViewer(viewer);
     }
@@ -0,0 +1,44 @@
+package org.csstudio.opibuilder.persistence;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IPath;
+import org.jdom.Element;
+
+/**
+ * Worker pool that reads and parses embedded OPI files off the UI thread.
+ * <p>
+ * Only the XML is handled here. Widget models look up fonts and colors and may report errors in dialogs, all of which
+ * involves SWT, so display models are built from the parsed XML on the UI thread.
+ */
+final class DisplayModelLoader {
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread thread = new Thread(r, "OPI Loader " + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private DisplayModelLoader() {
+    }
+
+    /**
+     * Reads and parses the given OPI file in the background. See {@link ParsedOPICache#getRootElement(IPath)}.
+     */
+    static CompletableFuture<Element> parse(IPath path) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ParsedOPICache.getRootElement(path);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,113 @@
+package org.csstudio.opibuilder.persistence;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.csstudio.opibuilder.util.ResourceUtil;
+import org.eclipse.core.runtime.IPath;
+import org.jdom.Element;
+
+/**
+ * Cache of parsed OPI files, keyed by file and validated against the file's timestamp and size.
+ * <p>
+ * The cached XML is macro-independent: macros are only resolved when property values are read from the models. So
+ * all linking containers that embed the same OPI file can build their models from the same parsed XML, without
+ * reading and parsing the file again. The cached elements must not be modified.
+ * <p>
+ * Files that are not available in the workspace or the local file system (e.g. platform URLs) are not cached.
+ */
+public final class ParsedOPICache {
+
+    /**
+     * Maximum number of cached files. The least recently used file is evicted first.
+     */
+    private static final int MAX_ENTRIES = 50;
+
+    private static final Map<File, CachedOPI> cache = new LinkedHashMap<File, CachedOPI>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, CachedOPI> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private ParsedOPICache() {
+    }
+
+    /**
+     * Returns the root element of the given OPI file, parsing it only if it is not cached or changed on disk.
+     */
+    static Element getRootElement(IPath path) throws Exception {
+        File file = ResourceUtil.getFile(path);
+        if (file == null) {
+            return parse(path);
+        }
+        long lastModified = file.lastModified();
+        long length = file.length();
+        synchronized (cache) {
+            CachedOPI cached = cache.get(file);
+            if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+                return cached.root;
+            }
+        }
+
+        // Parse outside the lock, concurrent loads of the same file are harmless
+        Element root = parse(path);
+        if (root != null) {
+            synchronized (cache) {
+                cache.put(file, new CachedOPI(root, lastModified, length));
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Parses the given OPI file into the cache, so that it is readily available when it is opened or embedded later
+     * on. This may be called from any thread.
+     */
+    public static void preload(IPath path) throws Exception {
+        getRootElement(path);
+    }
+
+    /**
+     * Removes the given OPI file from the cache.
+     */
+    public static void evict(IPath path) throws Exception {
+        File file = ResourceUtil.getFile(path);
+        if (file != null) {
+            synchronized (cache) {
+                cache.remove(file);
+            }
+        }
+    }
+
+    /**
+     * Removes all OPI files from the cache.
+     */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static Element parse(IPath path) throws Exception {
+        try (InputStream in = ResourceUtil.pathToInputStream(path)) {
+            return XMLUtil.inputStreamToXML(in);
+        }
+    }
+
+    private static final class CachedOPI {
+        final Element root;
+        final long lastModified;
+        final long length;
+
+        CachedOPI(Element root, long lastModified, long length) {
+            this.root = root;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
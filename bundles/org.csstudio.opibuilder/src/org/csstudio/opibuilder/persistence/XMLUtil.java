@@ -206,7 +206,7 @@ public class XMLUtil {
      */
     public static void fillDisplayModelFromInputStream(
             final InputStream inputStream, final DisplayModel displayModel, Display display) throws Exception {
-        fillDisplayModelFromInputStreamSub(inputStream, displayModel, display, new ArrayList<IPath>(), null);
+        fillDisplayModelFromInputStreamSub(inputStream, displayModel, display, new ArrayList<IPath>(), null, false);
     }
 
     /**
@@ -223,21 +223,75 @@ public class XMLUtil {
     public static void fillDisplayModelFromInputStream(
             final InputStream inputStream, final DisplayModel displayModel, Display display,
             final MacrosInput macrosInput_) throws Exception {
-        fillDisplayModelFromInputStreamSub(inputStream, displayModel, display, new ArrayList<IPath>(), macrosInput_);
+        fillDisplayModelFromInputStreamSub(inputStream, displayModel, display, new ArrayList<IPath>(), macrosInput_,
+                false);
+    }
+
+    /**
+     * Fill the DisplayModel from an OPI file inputstream, optionally leaving the linking containers to be filled in the
+     * background.
+     * <p>
+     * With <code>deferLinkingContainers</code>, only the widgets of this OPI file are created, and the linking
+     * containers are left empty. Call {@link #fillLinkingContainersInBackground(AbstractContainerModel, MacrosInput)}
+     * once the display model is complete, for example after setting its macros.
+     *
+     * @param inputStream
+     *            the inputstream will be closed in this method before return.
+     * @param displayModel.
+     *            The {@link DisplayModel} to be filled.
+     * @param display
+     *            the display in UI Thread.
+     * @param deferLinkingContainers
+     *            whether to load the embedded OPI files in the background.
+     * @throws Exception
+     */
+    public static void fillDisplayModelFromInputStream(
+            final InputStream inputStream, final DisplayModel displayModel, Display display,
+            final MacrosInput macrosInput_, boolean deferLinkingContainers) throws Exception {
+        fillDisplayModelFromInputStreamSub(inputStream, displayModel, display, new ArrayList<IPath>(), macrosInput_,
+                deferLinkingContainers);
+    }
+
+    /**
+     * Fill all LinkingContainers under the model, reading and parsing their OPI files in the background. Must be
+     * called in UI Thread.
+     * <p>
+     * Each linking container gets a {@link AbstractLinkingContainerModel#getPendingDisplayModel() pending display
+     * model}. Only the files are read and parsed on a worker thread. Building widget models touches SWT (fonts,
+     * colors, error dialogs), so the display models are built back on the UI thread, where deeper linking containers
+     * are deferred in turn. This way the top-level layout can be shown right away, and the linking containers are
+     * filled in as they finish loading.
+     *
+     * @param container
+     *            the container, usually a display model filled with <code>deferLinkingContainers</code>.
+     * @param macrosInput_
+     *            the macros of the runner input, if any.
+     * @throws Exception
+     */
+    public static void fillLinkingContainersInBackground(AbstractContainerModel container,
+            final MacrosInput macrosInput_) throws Exception {
+        fillLinkingContainersSub(container, new ArrayList<IPath>(), macrosInput_, true);
     }
 
     private static void fillDisplayModelFromInputStreamSub(
             final InputStream inputStream, final DisplayModel displayModel, Display display, List<IPath> trace,
-            final MacrosInput macrosInput_) throws Exception {
+            final MacrosInput macrosInput_, boolean deferLinkingContainers) throws Exception {
+
+        Element root = inputStreamToXML(inputStream);
+        fillDisplayModelFromXMLSub(root, displayModel, display, trace, macrosInput_, deferLinkingContainers);
+        inputStream.close();
+    }
+
+    private static void fillDisplayModelFromXMLSub(
+            final Element root, final DisplayModel displayModel, Display display, List<IPath> trace,
+            final MacrosInput macrosInput_, boolean deferLinkingContainers) throws Exception {
 
         if (display == null) {
             display = Display.getCurrent();
         }
-        IPath opiPath = displayModel.getOpiFilePath();
 
-        Element root = inputStreamToXML(inputStream);
         if (root != null) {
-            XMLElementToWidgetSub(root, displayModel, trace, macrosInput_);
+            XMLElementToWidgetSub(root, displayModel, trace, macrosInput_, deferLinkingContainers);
 
             // check version
             if (false && compareVersion(displayModel.getBOYVersion(),
@@ -259,7 +313,6 @@ public class XMLUtil {
             }
 
         }
-        inputStream.close();
     }
 
     /**
@@ -287,12 +340,12 @@ public class XMLUtil {
      * @throws Exception
      */
     public static AbstractWidgetModel XMLElementToWidget(Element element, DisplayModel displayModel) throws Exception {
-        return XMLElementToWidgetSub(element, displayModel, new ArrayList<IPath>(), null);
+        return XMLElementToWidgetSub(element, displayModel, new ArrayList<IPath>(), null, false);
     }
 
     private static AbstractWidgetModel XMLElementToWidgetSub(Element element, DisplayModel displayModel,
             List<IPath> trace,
-            final MacrosInput macrosInput_) throws Exception {
+            final MacrosInput macrosInput_, boolean deferLinkingContainers) throws Exception {
         if (element == null) {
             return null;
         }
@@ -302,8 +355,9 @@ public class XMLUtil {
         if (WIDGET_TAGS.contains(element.getName())) {
             result = fillWidgets(element, displayModel);
 
-            if (result instanceof AbstractContainerModel) {
-                fillLinkingContainersSub((AbstractContainerModel) result, trace, macrosInput_);
+            // Deferred linking containers are filled by the caller, once the model is complete
+            if (result instanceof AbstractContainerModel && !deferLinkingContainers) {
+                fillLinkingContainersSub((AbstractContainerModel) result, trace, macrosInput_, false);
             }
             fillConnections(element, displayModel);
 
@@ -401,16 +455,16 @@ public class XMLUtil {
      * @throws Exception
      */
     public static void fillLinkingContainers(AbstractContainerModel container) throws Exception {
-        fillLinkingContainersSub(container, new ArrayList<IPath>(), null);
+        fillLinkingContainersSub(container, new ArrayList<IPath>(), null, false);
     }
 
     private static void fillLinkingContainersSub(AbstractContainerModel container, List<IPath> trace,
-            final MacrosInput macrosInput_) throws Exception {
+            final MacrosInput macrosInput_, boolean deferLinkingContainers) throws Exception {
         if (container instanceof AbstractLinkingContainerModel) {
             AbstractLinkingContainerModel linkingContainer = (AbstractLinkingContainerModel) container;
             List<IPath> tempTrace = new ArrayList<>();
             tempTrace.addAll(trace);
-            fillLinkingContainerSub(linkingContainer, tempTrace, macrosInput_);
+            fillLinkingContainerSub(linkingContainer, tempTrace, macrosInput_, deferLinkingContainers);
         }
 
         for (AbstractWidgetModel w : container.getAllDescendants()) {
@@ -418,7 +472,7 @@ public class XMLUtil {
                 AbstractLinkingContainerModel linkingContainer = (AbstractLinkingContainerModel) w;
                 List<IPath> tempTrace = new ArrayList<>();
                 tempTrace.addAll(trace);
-                fillLinkingContainerSub(linkingContainer, tempTrace, macrosInput_);
+                fillLinkingContainerSub(linkingContainer, tempTrace, macrosInput_, deferLinkingContainers);
             }
         }
     }
@@ -483,7 +537,7 @@ public class XMLUtil {
      */
     public static void fillLinkingContainer(final AbstractLinkingContainerModel container)
             throws Exception {
-        fillLinkingContainerSub(container, new ArrayList<IPath>(), null);
+        fillLinkingContainerSub(container, new ArrayList<IPath>(), null, false);
     }
 
     private static Map<String, String> buildMacroMap(AbstractContainerModel model) {
@@ -499,7 +553,7 @@ public class XMLUtil {
     }
 
     private static void fillLinkingContainerSub(final AbstractLinkingContainerModel container, List<IPath> trace,
-            final MacrosInput macrosInput_)
+            final MacrosInput macrosInput_, boolean deferLinkingContainers)
             throws Exception {
 
         if (container == null) {
@@ -529,33 +583,49 @@ public class XMLUtil {
                 inside.setDisplayID(container.getRootDisplayModel(false).getDisplayID());
                 inside.setParentDisplayModel(container.getRootDisplayModel());
 
+                Display display = Display.getCurrent();
+                if (deferLinkingContainers && display != null) {
+                    // Only parse in the background, the model is built on the UI thread
+                    final IPath insidePath = path;
+                    container.setPendingDisplayModel(DisplayModelLoader.parse(insidePath)
+                            .thenApplyAsync(root -> {
+                                fillLinkedDisplayModel(inside, root, insidePath, trace, macrosInput_, true);
+                                return inside;
+                            }, display::asyncExec));
+                    return;
+                }
+
+                Element root = null;
                 try {
-                    fillDisplayModelFromInputStreamSub(ResourceUtil.pathToInputStream(path), inside,
-                            Display.getCurrent(), trace, macrosInput_);
+                    // The same OPI is often embedded many times, with different macros
+                    root = ParsedOPICache.getRootElement(path);
                 } catch (Exception ex) {
                     OPIBuilderPlugin.getLogger().log(Level.WARNING, "Failed to load LinkingContainer opi_file " + path,
                             ex);
                 }
+                fillLinkedDisplayModel(inside, root, path, trace, macrosInput_, false);
+                container.setDisplayModel(inside);
+            }
+        }
+    }
 
-                // mark connection as it is loaded from linked opi
-                for (AbstractWidgetModel w : inside.getAllDescendants()) {
-                    for (ConnectionModel conn : w.getSourceConnections()) {
-                        conn.setLoadedFromLinkedOpi(true);
-                    }
-                }
-
-                AbstractContainerModel loadTarget = inside;
-
-                if (!container.getGroupName().trim().equals("")) {
-                    AbstractWidgetModel group = inside.getChildByName(container.getGroupName());
-                    if (group != null && group instanceof AbstractContainerModel) {
-                        loadTarget = (AbstractContainerModel) group;
-                    }
-                }
-
-                // container.addChildren(loadTarget.getChildren(), true);
+    private static void fillLinkedDisplayModel(DisplayModel inside, Element root, IPath path, List<IPath> trace,
+            final MacrosInput macrosInput_, boolean deferLinkingContainers) {
+        try {
+            fillDisplayModelFromXMLSub(root, inside, Display.getCurrent(), trace, macrosInput_,
+                    deferLinkingContainers);
+            if (root != null && deferLinkingContainers) {
+                fillLinkingContainersSub(inside, trace, macrosInput_, true);
+            }
+        } catch (Exception ex) {
+            OPIBuilderPlugin.getLogger().log(Level.WARNING, "Failed to load LinkingContainer opi_file " + path,
+                    ex);
+        }
 
-                container.setDisplayModel(inside);
+        // mark connection as it is loaded from linked opi
+        for (AbstractWidgetModel w : inside.getAllDescendants()) {
+            for (ConnectionModel conn : w.getSourceConnections()) {
+                conn.setLoadedFromLinkedOpi(true);
             }
         }
     }
@@ -685,7 +755,7 @@ public class XMLUtil {
         return potentialTag.equals(xmlTag);
     }
 
-    private static Element inputStreamToXML(InputStream stream) throws JDOMException, IOException {
+    static Element inputStreamToXML(InputStream stream) throws JDOMException, IOException {
         SAXBuilder saxBuilder = LineAwareXMLParser.createBuilder();
         Document doc = saxBuilder.build(stream);
         Element root = doc.getRootElement();
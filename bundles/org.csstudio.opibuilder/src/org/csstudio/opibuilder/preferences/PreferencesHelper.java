@@ -45,6 +45,7 @@ public class PreferencesHelper {
     public static final String SHOW_FULLSCREEN_DIALOG = "show_fullscreen_dialog";
     public static final String PULSING_ALARM_MINOR_PERIOD = "pulsing_alarm_minor_period";
     public static final String PULSING_ALARM_MAJOR_PERIOD = "pulsing_alarm_major_period";
+    public static final String PV_NOTIFICATION_THREADS = "pv_notification_threads";
 
     // The widgets that are hidden from palette.
     public static final String HIDDEN_WIDGETS = "hidden_widgets";
@@ -92,6 +93,14 @@ public class PreferencesHelper {
         return service.getInt(OPIBuilderPlugin.PLUGIN_ID, OPI_GUI_REFRESH_CYCLE, 100, null);
     }
 
+    /**
+     * @return number of threads used for PV change event notification. 0 means one per available processor.
+     */
+    public static Integer getPVNotificationThreads() {
+        IPreferencesService service = Platform.getPreferencesService();
+        return service.getInt(OPIBuilderPlugin.PLUGIN_ID, PV_NOTIFICATION_THREADS, 0, null);
+    }
+
     public static Integer getPulsingAlarmMinorPeriod() {
         IPreferencesService service = Platform.getPreferencesService();
         return service.getInt(OPIBuilderPlugin.PLUGIN_ID, PULSING_ALARM_MINOR_PERIOD, 3000, null);
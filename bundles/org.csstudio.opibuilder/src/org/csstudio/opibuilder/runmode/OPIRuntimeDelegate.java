@@ -111,11 +111,14 @@ public class OPIRuntimeDelegate implements IAdaptable {
                     macrosInput = ((IRunnerInput) input).getMacrosInput();
                 }
                 XMLUtil.fillDisplayModelFromInputStream(inputStream,
-                        displayModel, null, macrosInput);
-                displayModelFilled = true;
+                        displayModel, null, macrosInput, true);
                 if (input instanceof IRunnerInput) {
                     addRunnerInputMacros(input);
                 }
+                // Embedded OPIs are loaded in the background, and show up as they finish.
+                // Only start now that the macros of the display are complete.
+                XMLUtil.fillLinkingContainersInBackground(displayModel, macrosInput);
+                displayModelFilled = true;
             }
         } catch (Exception e) {
             ErrorHandlerUtil.handleError("Failed to open opi file: " + input, e, true, true);
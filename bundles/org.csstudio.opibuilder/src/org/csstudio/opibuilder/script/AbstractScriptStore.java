@@ -12,6 +12,7 @@ import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
 import org.csstudio.opibuilder.OPIBuilderPlugin;
@@ -20,6 +21,7 @@ import org.csstudio.opibuilder.editparts.DisplayEditpart;
 import org.csstudio.opibuilder.model.AbstractLinkingContainerModel;
 import org.csstudio.opibuilder.model.AbstractWidgetModel;
 import org.csstudio.opibuilder.model.DisplayModel;
+import org.csstudio.opibuilder.util.OPIBuilderMacroUtil;
 import org.csstudio.opibuilder.util.ResourceUtil;
 import org.csstudio.simplepv.IPV;
 import org.csstudio.simplepv.IPVListener;
@@ -55,7 +57,8 @@ public abstract class AbstractScriptStore implements IScriptStore {
      */
     private Map<IPV, Boolean> pvTriggeredMap;
 
-    private boolean triggerSuppressed = false;
+    // Set and cleared by the listeners of different PVs, which may be notified on different threads
+    private final AtomicBoolean triggerSuppressed = new AtomicBoolean();
 
     private ScriptData scriptData;
     private AbstractBaseEditPart editPart;
@@ -114,13 +117,21 @@ public abstract class AbstractScriptStore implements IScriptStore {
                 // TODO Understand & redo the whole widget model and its quirks for linking containers,
                 // so all the recently added (.. instanceof ..Linking..) can be removed.
                 final AbstractWidgetModel model = editPart.getWidgetModel();
-                final DisplayModel root;
+                final IPath opiPath;
                 if (model instanceof AbstractLinkingContainerModel) {
-                    root = ((AbstractLinkingContainerModel) model).getDisplayModel();
+                    AbstractLinkingContainerModel container = (AbstractLinkingContainerModel) model;
+                    DisplayModel displayModel = container.getDisplayModel();
+                    if (displayModel != null) {
+                        opiPath = displayModel.getOpiFilePath();
+                    } else {
+                        // The opi is still being loaded in the background, it will have the macro resolved opi_file
+                        opiPath = ResourceUtil.getPathFromString(OPIBuilderMacroUtil.replaceMacros(container,
+                                container.getOPIFilePath().toString()));
+                    }
                 } else {
-                    root = model.getRootDisplayModel();
+                    opiPath = model.getRootDisplayModel().getOpiFilePath();
                 }
-                absoluteScriptPath = root.getOpiFilePath().removeLastSegments(1).append(absoluteScriptPath);
+                absoluteScriptPath = opiPath.removeLastSegments(1).append(absoluteScriptPath);
                 // ---
                 if (!ResourceUtil.isExsitingFile(absoluteScriptPath, true)) {
                     throw new FileNotFoundException(scriptData.getPath().toString());
@@ -141,12 +152,7 @@ public abstract class AbstractScriptStore implements IScriptStore {
         } else if (scriptData.isEmbedded()) {
             compileString(scriptData.getScriptText());
         } else {
-            // read file
-            InputStream inputStream = ResourceUtil.pathToInputStream(absoluteScriptPath);
-
-            // compile
-            compileInputStream(inputStream);
-            inputStream.close();
+            compileFile(absoluteScriptPath);
         }
 
         pvListenerMap = new HashMap<>();
@@ -156,9 +162,9 @@ public abstract class AbstractScriptStore implements IScriptStore {
 
             @Override
             public synchronized void valueChanged(IPV pv) {
-                if (triggerSuppressed && checkPVsConnected(scriptData, pvArray)) {
+                if (triggerSuppressed.get() && checkPVsConnected(scriptData, pvArray)
+                        && triggerSuppressed.compareAndSet(true, false)) {
                     executeScriptInUIThread(pv);
-                    triggerSuppressed = false;
                 }
             }
 
@@ -178,7 +184,7 @@ public abstract class AbstractScriptStore implements IScriptStore {
                 // execute script only if all input pvs are connected
                 if (pvArray.length > 1) {
                     if (!checkPVsConnected(scriptData, pvArray)) {
-                        triggerSuppressed = true;
+                        triggerSuppressed.set(true);
                         return;
 
                     }
@@ -232,6 +238,22 @@ public abstract class AbstractScriptStore implements IScriptStore {
      */
     protected abstract void compileInputStream(InputStream s) throws Exception;
 
+    /**
+     * Compile the script file with script engine. By default the file is read and passed to
+     * {@link #compileInputStream(InputStream)}.
+     * 
+     * @param path
+     * @throws Exception
+     */
+    protected void compileFile(IPath path) throws Exception {
+        // read file
+        InputStream inputStream = ResourceUtil.pathToInputStream(path);
+
+        // compile
+        compileInputStream(inputStream);
+        inputStream.close();
+    }
+
     /**
      * Execute the script with script engine.
      * 
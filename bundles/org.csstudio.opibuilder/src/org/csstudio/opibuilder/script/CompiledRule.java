@@ -0,0 +1,433 @@
+package org.csstudio.opibuilder.script;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.csstudio.opibuilder.scriptUtil.PVUtil;
+import org.csstudio.simplepv.IPV;
+
+/**
+ * A {@link RuleData} compiled to Java, so that it can be evaluated without a script engine.
+ * <p>
+ * Only a subset of the rule expressions is supported: comparisons ({@code == != === !== < <= > >=}) between the
+ * rule variables ({@code pv0}, {@code pvInt0}, {@code pvStr0}, {@code pvSev0}) and number, string or boolean
+ * literals, combined with {@code &&}, {@code ||}, {@code !} and parentheses. Output expressions must be a single
+ * variable or literal. {@link #compile(RuleData)} returns null for anything else, in which case the rule runs as
+ * generated JavaScript.
+ *
+ * @see RuleData#generateScript()
+ */
+final class CompiledRule {
+
+    private static final int DBL = 0, INT = 1, STR = 2, SEV = 3;
+
+    private final String propId;
+    private final Condition[] conditions;
+
+    // Value for each condition, followed by the value if no condition matches
+    private final Operand[] values;
+
+    // Kinds of variables that are used. Like in the generated script, these are evaluated for all PVs.
+    private final boolean[] needed;
+
+    private CompiledRule(String propId, Condition[] conditions, Operand[] values, boolean[] needed) {
+        this.propId = propId;
+        this.conditions = conditions;
+        this.values = values;
+        this.needed = needed;
+    }
+
+    /**
+     * @return the compiled rule, or null if the rule uses anything outside the supported subset.
+     */
+    static CompiledRule compile(RuleData ruleData) {
+        List<Expression> expressions = ruleData.getExpressionList();
+        if (expressions.isEmpty()) {
+            return null;
+        }
+        int pvCount = ruleData.getPVList().size();
+        boolean[] needed = new boolean[4];
+
+        Condition[] conditions = new Condition[expressions.size()];
+        Operand[] values = new Operand[expressions.size() + 1];
+        for (int i = 0; i < expressions.size(); i++) {
+            Expression exp = expressions.get(i);
+            Parser parser = new Parser(exp.getBooleanExpression(), pvCount, needed);
+            conditions[i] = parser.parseCondition();
+            if (conditions[i] == null) {
+                return null;
+            }
+            if (ruleData.isOutputExpValue()) {
+                Object value = exp.getValue();
+                if (value == null) {
+                    return null;
+                }
+                parser = new Parser(value.toString(), pvCount, needed);
+                values[i] = parser.parseValue();
+                if (values[i] == null) {
+                    return null;
+                }
+            } else {
+                Object value = exp.getValue();
+                values[i] = in -> value;
+            }
+        }
+        Object defaultValue = ruleData.getProperty().getPropertyValue();
+        values[expressions.size()] = in -> defaultValue;
+
+        return new CompiledRule(ruleData.getPropId(), conditions, values, needed);
+    }
+
+    String getPropId() {
+        return propId;
+    }
+
+    /**
+     * @return the value to set on the rule property for the current values of the given PVs.
+     */
+    Object evaluate(IPV[] pvs) {
+        Inputs in = new Inputs(pvs, needed);
+        for (int i = 0; i < conditions.length; i++) {
+            if (conditions[i].test(in)) {
+                return values[i].get(in);
+            }
+        }
+        return values[conditions.length].get(in);
+    }
+
+    private static final class Inputs {
+
+        final double[] dbl;
+        final Long[] ints;
+        final String[] strs;
+        final int[] sevs;
+
+        Inputs(IPV[] pvs, boolean[] needed) {
+            dbl = needed[DBL] ? new double[pvs.length] : null;
+            ints = needed[INT] ? new Long[pvs.length] : null;
+            strs = needed[STR] ? new String[pvs.length] : null;
+            sevs = needed[SEV] ? new int[pvs.length] : null;
+            for (int i = 0; i < pvs.length; i++) {
+                if (dbl != null)
+                    dbl[i] = PVUtil.getDouble(pvs[i]);
+                if (ints != null)
+                    ints[i] = PVUtil.getLong(pvs[i]);
+                if (strs != null)
+                    strs[i] = PVUtil.getString(pvs[i]);
+                if (sevs != null)
+                    sevs[i] = PVUtil.getSeverity(pvs[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean test(Inputs in);
+    }
+
+    @FunctionalInterface
+    private interface Operand {
+        Object get(Inputs in);
+    }
+
+    private enum Type {
+        NUMBER, STRING, BOOLEAN
+    }
+
+    /**
+     * An operand together with its (static) type.
+     */
+    private static final class TypedOperand {
+        final Type type;
+        final Operand operand;
+
+        TypedOperand(Type type, Operand operand) {
+            this.type = type;
+            this.operand = operand;
+        }
+    }
+
+    /**
+     * Recursive descent parser for the supported subset. All parse methods return null on unsupported input.
+     */
+    private static final class Parser {
+
+        private static final Pattern TOKEN = Pattern.compile("\\s*(?:"
+                + "(pv(?:Int|Str|Sev)?)(\\d+)" // variable: 1 = kind, 2 = index
+                + "|(\\d+(?:\\.\\d*)?(?:[eE][+-]?\\d+)?|\\.\\d+(?:[eE][+-]?\\d+)?)" // 3 = number
+                + "|\"([^\"\\\\]*)\"|'([^'\\\\]*)'" // 4, 5 = string
+                + "|(true|false)\\b" // 6 = boolean
+                + "|(===|!==|==|!=|<=|>=|&&|\\|\\||[<>()!-])" // 7 = operator
+                + ")");
+
+        private final String text;
+        private final int pvCount;
+        private final boolean[] needed;
+        private final Matcher matcher;
+        private int pos;
+
+        // Current token
+        private String op;
+        private TypedOperand operand;
+        private boolean end;
+
+        Parser(String text, int pvCount, boolean[] needed) {
+            this.text = text;
+            this.pvCount = pvCount;
+            this.needed = needed;
+            matcher = TOKEN.matcher(text);
+        }
+
+        Condition parseCondition() {
+            if (!next()) {
+                return null;
+            }
+            Condition condition = parseOr();
+            return (condition != null && end) ? condition : null;
+        }
+
+        Operand parseValue() {
+            if (!next()) {
+                return null;
+            }
+            TypedOperand value = parseOperand();
+            return (value != null && end) ? value.operand : null;
+        }
+
+        /**
+         * Advances to the next token. Returns false if the remaining text does not start with a supported token.
+         */
+        private boolean next() {
+            op = null;
+            operand = null;
+            if (text.substring(pos).trim().isEmpty()) {
+                end = true;
+                return true;
+            }
+            matcher.region(pos, text.length());
+            if (!matcher.lookingAt()) {
+                return false;
+            }
+            pos = matcher.end();
+            if (matcher.group(1) != null) {
+                int index = Integer.parseInt(matcher.group(2));
+                if (index >= pvCount) {
+                    return false; // Undefined in the generated script
+                }
+                operand = variable(matcher.group(1), index);
+            } else if (matcher.group(3) != null) {
+                operand = number(matcher.group(3));
+            } else if (matcher.group(4) != null || matcher.group(5) != null) {
+                String s = matcher.group(4) != null ? matcher.group(4) : matcher.group(5);
+                operand = new TypedOperand(Type.STRING, in -> s);
+            } else if (matcher.group(6) != null) {
+                Boolean b = Boolean.valueOf(matcher.group(6));
+                operand = new TypedOperand(Type.BOOLEAN, in -> b);
+            } else {
+                op = matcher.group(7);
+            }
+            return true;
+        }
+
+        private TypedOperand variable(String kind, int index) {
+            switch (kind) {
+            case "pvInt":
+                needed[INT] = true;
+                return new TypedOperand(Type.NUMBER, in -> in.ints[index]);
+            case "pvStr":
+                needed[STR] = true;
+                return new TypedOperand(Type.STRING, in -> in.strs[index]);
+            case "pvSev":
+                needed[SEV] = true;
+                return new TypedOperand(Type.NUMBER, in -> in.sevs[index]);
+            default:
+                needed[DBL] = true;
+                return new TypedOperand(Type.NUMBER, in -> in.dbl[index]);
+            }
+        }
+
+        private static TypedOperand number(String literal) {
+            double d = Double.parseDouble(literal);
+            Object value;
+            if (d == Math.rint(d) && Math.abs(d) <= Integer.MAX_VALUE) {
+                value = (int) d;
+            } else {
+                value = d;
+            }
+            return new TypedOperand(Type.NUMBER, in -> value);
+        }
+
+        private Condition parseOr() {
+            Condition left = parseAnd();
+            while (left != null && "||".equals(op)) {
+                if (!next()) {
+                    return null;
+                }
+                Condition right = parseAnd();
+                if (right == null) {
+                    return null;
+                }
+                Condition l = left;
+                left = in -> l.test(in) || right.test(in);
+            }
+            return left;
+        }
+
+        private Condition parseAnd() {
+            Condition left = parseUnary();
+            while (left != null && "&&".equals(op)) {
+                if (!next()) {
+                    return null;
+                }
+                Condition right = parseUnary();
+                if (right == null) {
+                    return null;
+                }
+                Condition l = left;
+                left = in -> l.test(in) && right.test(in);
+            }
+            return left;
+        }
+
+        private Condition parseUnary() {
+            if ("!".equals(op)) {
+                // In JavaScript, ! binds stronger than comparisons. Only negations of a group are supported.
+                if (!next() || !("(".equals(op) || "!".equals(op))) {
+                    return null;
+                }
+                Condition c = parseUnary();
+                return c != null ? in -> !c.test(in) : null;
+            }
+            if ("(".equals(op)) {
+                if (!next()) {
+                    return null;
+                }
+                Condition c = parseOr();
+                if (c == null || !")".equals(op) || !next()) {
+                    return null;
+                }
+                return c;
+            }
+            return parseComparison();
+        }
+
+        private Condition parseComparison() {
+            TypedOperand left = parseOperand();
+            if (left == null) {
+                return null;
+            }
+            if (op == null || !isComparison(op)) {
+                if (left.type == Type.BOOLEAN) { // Plain true or false
+                    Operand o = left.operand;
+                    return in -> (Boolean) o.get(in);
+                }
+                return null; // JavaScript truthiness is not supported
+            }
+            String comparison = op;
+            if (!next()) {
+                return null;
+            }
+            TypedOperand right = parseOperand();
+            if (right == null || left.type != right.type) {
+                return null;
+            }
+            return compare(left, comparison, right);
+        }
+
+        private TypedOperand parseOperand() {
+            if ("-".equals(op)) {
+                if (!next() || operand == null || operand.type != Type.NUMBER) {
+                    return null;
+                }
+                Operand o = operand.operand;
+                if (!next()) {
+                    return null;
+                }
+                return new TypedOperand(Type.NUMBER, in -> {
+                    Object value = o.get(in);
+                    return (value instanceof Integer) ? (Object) (-(Integer) value) : -((Number) value).doubleValue();
+                });
+            }
+            TypedOperand result = operand;
+            if (result == null || !next()) {
+                return null;
+            }
+            return result;
+        }
+
+        private static boolean isComparison(String op) {
+            switch (op) {
+            case "==":
+            case "===":
+            case "!=":
+            case "!==":
+            case "<":
+            case "<=":
+            case ">":
+            case ">=":
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        private static Condition compare(TypedOperand left, String op, TypedOperand right) {
+            Operand l = left.operand;
+            Operand r = right.operand;
+            boolean negate = "!=".equals(op) || "!==".equals(op);
+            if (left.type == Type.NUMBER) {
+                switch (op) {
+                case "<":
+                    return in -> toDouble(l.get(in)) < toDouble(r.get(in));
+                case "<=":
+                    return in -> toDouble(l.get(in)) <= toDouble(r.get(in));
+                case ">":
+                    return in -> toDouble(l.get(in)) > toDouble(r.get(in));
+                case ">=":
+                    return in -> toDouble(l.get(in)) >= toDouble(r.get(in));
+                default:
+                    return in -> (toDouble(l.get(in)) == toDouble(r.get(in))) != negate;
+                }
+            } else if (left.type == Type.STRING) {
+                switch (op) {
+                case "<":
+                    return in -> compareStrings(l.get(in), r.get(in), c -> c < 0);
+                case "<=":
+                    return in -> compareStrings(l.get(in), r.get(in), c -> c <= 0);
+                case ">":
+                    return in -> compareStrings(l.get(in), r.get(in), c -> c > 0);
+                case ">=":
+                    return in -> compareStrings(l.get(in), r.get(in), c -> c >= 0);
+                default:
+                    return in -> {
+                        Object a = l.get(in);
+                        Object b = r.get(in);
+                        return (a == null ? b == null : a.equals(b)) != negate;
+                    };
+                }
+            } else {
+                if (!"==".equals(op) && !"===".equals(op) && !negate) {
+                    return null;
+                }
+                return in -> l.get(in).equals(r.get(in)) != negate;
+            }
+        }
+
+        private static double toDouble(Object value) {
+            // Like in JavaScript, a missing number compares as NaN
+            return value != null ? ((Number) value).doubleValue() : Double.NaN;
+        }
+
+        /**
+         * Compares two strings. A missing string does not compare to anything.
+         */
+        private static boolean compareStrings(Object a, Object b, IntPredicate test) {
+            if (a == null || b == null) {
+                return false;
+            }
+            return test.test(((String) a).compareTo((String) b));
+        }
+    }
+}
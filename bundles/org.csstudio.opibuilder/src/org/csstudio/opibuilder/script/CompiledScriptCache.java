@@ -0,0 +1,162 @@
+package org.csstudio.opibuilder.script;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.csstudio.opibuilder.util.ResourceUtil;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Cache of compiled scripts, shared by all script stores of the same script engine. Like the script engines (see
+ * {@link ScriptStoreFactory}), the scripts are kept per Display, and dropped when the Display is disposed. Scripts
+ * are keyed by a hash of their content, so widgets that use the same script file or identical rule text only compile
+ * it once.
+ * <p>
+ * The content of workspace script files is cached as well, and dropped when the file changes (see
+ * {@link #invalidate(Collection)}). Other files are read again each time.
+ */
+public final class CompiledScriptCache {
+
+    /**
+     * Maximum number of compiled scripts kept per Display.
+     */
+    private static final int MAX_SCRIPTS = 500;
+
+    private static final CompiledScriptCache instance = new CompiledScriptCache();
+
+    private Map<Display, Map<String, CompiledScript>> scriptsByDisplay = new HashMap<>();
+
+    private Map<IPath, String> contentByPath = new HashMap<>();
+
+    private CompiledScriptCache() {
+    }
+
+    public static CompiledScriptCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the compiled script for the given content, compiling it only if it was not yet compiled with the engine
+     * of the current Display. Should be called in UI Thread with the engine of
+     * {@link ScriptStoreFactory#getJavaScriptEngine()}, otherwise the script is not cached.
+     */
+    synchronized CompiledScript compile(ScriptEngine engine, String content) throws ScriptException {
+        Display display = Display.getCurrent();
+        if (display == null) {
+            return ((Compilable) engine).compile(content);
+        }
+        Map<String, CompiledScript> scripts = scriptsByDisplay.get(display);
+        if (scripts == null) {
+            scripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Entry<String, CompiledScript> eldest) {
+                    return size() > MAX_SCRIPTS;
+                }
+            };
+            scriptsByDisplay.put(display, scripts);
+            display.disposeExec(() -> {
+                synchronized (this) {
+                    scriptsByDisplay.remove(display);
+                }
+            });
+        }
+        String key = hash(content);
+        CompiledScript script = scripts.get(key);
+        if (script == null) {
+            script = ((Compilable) engine).compile(content);
+            scripts.put(key, script);
+        }
+        return script;
+    }
+
+    /**
+     * Returns the compiled script for the content of the given file.
+     */
+    CompiledScript compileFile(ScriptEngine engine, IPath path) throws Exception {
+        return compile(engine, getContent(path));
+    }
+
+    private String getContent(IPath path) throws Exception {
+        boolean workspaceFile = ResourceUtil.isExistingWorkspaceFile(path);
+        if (workspaceFile) {
+            synchronized (this) {
+                String content = contentByPath.get(path);
+                if (content != null) {
+                    return content;
+                }
+            }
+        }
+        String content = readContent(ResourceUtil.pathToInputStream(path));
+        if (workspaceFile) {
+            synchronized (this) {
+                contentByPath.put(path, content);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Forget the content of the given workspace files, and the scripts that were compiled from it.
+     */
+    public void invalidate(Collection<IPath> paths) {
+        synchronized (this) {
+            for (IPath path : paths) {
+                String content = contentByPath.remove(path);
+                if (content != null) {
+                    String key = hash(content);
+                    for (Map<String, CompiledScript> scripts : scriptsByDisplay.values()) {
+                        scripts.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Read all of the stream as UTF-8 text. The stream is closed by this method.
+     */
+    static String readContent(InputStream in) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[1024];
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                bout.write(buffer, 0, length);
+            }
+        } finally {
+            in.close();
+        }
+        return bout.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder buf = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                buf.append(String.format("%02x", b));
+            }
+            return buf.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,20 +1,18 @@
 package org.csstudio.opibuilder.script;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.charset.StandardCharsets;
 
 import javax.script.Bindings;
-import javax.script.Compilable;
 import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
 import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
 import org.csstudio.simplepv.IPV;
+import org.eclipse.core.runtime.IPath;
 
 /**
  * This is the implementation of {@link AbstractScriptStore} for the default javascript script engine embedded in Java.
@@ -54,24 +52,18 @@ public class JavaScriptStore extends AbstractScriptStore {
 
     @Override
     protected void compileString(String string) throws Exception {
-        script = ((Compilable) engine).compile(string);
+        script = CompiledScriptCache.getInstance().compile(engine, string);
     }
 
     @Override
     protected void compileInputStream(InputStream in) throws Exception {
-        ByteArrayOutputStream bout = new ByteArrayOutputStream();
-        try {
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = in.read(buffer)) != -1) {
-                bout.write(buffer, 0, length);
-            }
-        } finally {
-            in.close();
-        }
+        String content = CompiledScriptCache.readContent(in);
+        script = CompiledScriptCache.getInstance().compile(engine, content);
+    }
 
-        String content = bout.toString(StandardCharsets.UTF_8.name());
-        script = ((Compilable) engine).compile(content);
+    @Override
+    protected void compileFile(IPath path) throws Exception {
+        script = CompiledScriptCache.getInstance().compileFile(engine, path);
     }
 
     @Override
@@ -243,12 +243,15 @@ public class RuleData implements IAdaptable{
 
     /**Convert this {@link RuleData} to {@link RuleScriptData} so
      * that the scriptEngine code can be reused for running rules.
+     * Rules within the subset supported by {@link CompiledRule} do not
+     * need a script engine.
      * @return
      */
     public RuleScriptData convertToScriptData(){
         RuleScriptData ruleScriptData  = new RuleScriptData(this);
         ruleScriptData.setPVList(pvList);
         ruleScriptData.setScriptString(generateScript());
+        ruleScriptData.setCompiledRule(CompiledRule.compile(this));
         return ruleScriptData;
     }
 
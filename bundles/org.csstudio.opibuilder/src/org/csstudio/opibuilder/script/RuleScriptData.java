@@ -17,6 +17,7 @@ public class RuleScriptData extends ScriptData {
 
     private String scriptString;
     private RuleData ruleData;
+    private CompiledRule compiledRule;
 
 
     public RuleScriptData(RuleData ruleData) {
@@ -41,6 +42,17 @@ public class RuleScriptData extends ScriptData {
         this.scriptString = scriptString;
     }
 
+    /**
+     * @return the rule compiled to Java, or null if it must run as script.
+     */
+    CompiledRule getCompiledRule() {
+        return compiledRule;
+    }
+
+    void setCompiledRule(CompiledRule compiledRule) {
+        this.compiledRule = compiledRule;
+    }
+
     public void setPVList(List<PVTuple> pvList){
         this.pvList = pvList;
     }
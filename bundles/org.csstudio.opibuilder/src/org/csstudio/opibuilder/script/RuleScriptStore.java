@@ -0,0 +1,40 @@
+package org.csstudio.opibuilder.script;
+
+import java.io.InputStream;
+
+import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
+import org.csstudio.simplepv.IPV;
+
+/**
+ * This is the implementation of {@link AbstractScriptStore} for rules that could be compiled to Java (see
+ * {@link CompiledRule}). No script engine is involved.
+ */
+public class RuleScriptStore extends AbstractScriptStore {
+
+    private CompiledRule rule;
+
+    public RuleScriptStore(RuleScriptData scriptData, AbstractBaseEditPart editpart, IPV[] pvArray)
+            throws Exception {
+        super(scriptData, editpart, pvArray);
+    }
+
+    @Override
+    protected void initScriptEngine() throws Exception {
+        rule = ((RuleScriptData) getScriptData()).getCompiledRule();
+    }
+
+    @Override
+    protected void compileString(String string) throws Exception {
+        // Already compiled
+    }
+
+    @Override
+    protected void compileInputStream(InputStream s) throws Exception {
+        s.close();
+    }
+
+    @Override
+    protected void execScript(IPV triggerPV) throws Exception {
+        getEditPart().setPropertyValue(rule.getPropId(), rule.evaluate(getPvArray()));
+    }
+}
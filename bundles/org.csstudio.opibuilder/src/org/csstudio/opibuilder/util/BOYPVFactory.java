@@ -1,13 +1,11 @@
 package org.csstudio.opibuilder.util;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
 import org.csstudio.opibuilder.preferences.PreferencesHelper;
 import org.csstudio.simplepv.AbstractPVFactory;
 import org.csstudio.simplepv.ExceptionHandler;
 import org.csstudio.simplepv.IPV;
 import org.csstudio.simplepv.SimplePVLayer;
+import org.csstudio.simplepv.StripedExecutor;
 import org.eclipse.swt.widgets.Display;
 
 /**
@@ -20,10 +18,10 @@ import org.eclipse.swt.widgets.Display;
 public class BOYPVFactory {
 
     /**
-     * The default background thread for PV change event notification.
+     * The background threads for PV change event notification. A PV is always notified on the same thread, so that
+     * its events keep their order. Created on first use.
      */
-    private final static ExecutorService BOY_PV_THREAD = Executors
-            .newSingleThreadExecutor();
+    private static StripedExecutor BOY_PV_EXECUTOR;
 
     private final static ExceptionHandler exceptionHandler = ex -> ErrorHandlerUtil
             .handleError("Error from pv connection layer: ", ex);
@@ -74,7 +72,20 @@ public class BOYPVFactory {
     public static IPV createPV(String name, boolean bufferAllValues, int updateDuration) throws Exception {
         AbstractPVFactory pvFactory = SimplePVLayer.getPVFactory("pvmanager");
         return pvFactory.createPV(
-                name, false, updateDuration, bufferAllValues, BOY_PV_THREAD, exceptionHandler);
+                name, false, updateDuration, bufferAllValues, getNotificationExecutor().getExecutor(name),
+                exceptionHandler);
+    }
+
+    /**
+     * @return the executor on which PV change events are notified. Its counters tell whether notification keeps up
+     *         with incoming updates.
+     */
+    public static synchronized StripedExecutor getNotificationExecutor() {
+        if (BOY_PV_EXECUTOR == null) {
+            BOY_PV_EXECUTOR = new StripedExecutor(PreferencesHelper.getPVNotificationThreads(),
+                    "BOY PV Notification");
+        }
+        return BOY_PV_EXECUTOR;
     }
 
 }
@@ -8,6 +8,7 @@
 package org.csstudio.opibuilder.util;
 
 import java.util.LinkedHashSet;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 import org.csstudio.opibuilder.OPIBuilderPlugin;
@@ -19,6 +20,9 @@ import org.eclipse.swt.widgets.Display;
  *
  * A singleton back thread which will help to execute tasks for OPI GUI refreshing. This thread sleeps for a time which
  * can be set in the preference page. It can help throttle the unnecessary repaint caused by fast PV value updating.
+ * <p>
+ * Each cycle runs all queued UI tasks in a single pass on the display thread. Tasks that are replaced by newer ones
+ * before they got run are counted as coalesced.
  *
  * @author Xihui Chen
  *
@@ -54,6 +58,9 @@ public final class GUIRefreshThread implements Runnable {
 
     private boolean isRuntime;
 
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder appliedCount = new LongAdder();
+
     /**
      * Standard constructor.
      */
@@ -145,31 +152,41 @@ public final class GUIRefreshThread implements Runnable {
     }
 
     /**
-     * Process the complete queue in RCP.
+     * Process the complete queue in RCP. All tasks are run in one batch.
      */
     private void rcpProcessQueue() {
         // avoid add too many stuff to Display async queue.
         if (!asyncEmpty)
             return;
-        asyncEmpty = false;
         Object[] tasksArray;
         // copy the tasks queue.
         synchronized (this) {
+            if (tasksQueue.isEmpty())
+                return;
             tasksArray = tasksQueue.toArray();
             tasksQueue.clear();
         }
         if (rcpDisplay == null || rcpDisplay.isDisposed())
             return;
-        for (Object o : tasksArray) {
-            try {
-                rcpDisplay.asyncExec(((WidgetIgnorableUITask) o)
-                        .getRunnableTask());
-            } catch (Exception e) {
-                OPIBuilderPlugin.getLogger().log(Level.WARNING,
-                        "Display has been disposed.", e);
-            }
+        asyncEmpty = false;
+        try {
+            rcpDisplay.asyncExec(() -> {
+                for (Object o : tasksArray) {
+                    try {
+                        ((WidgetIgnorableUITask) o).getRunnableTask().run();
+                        appliedCount.increment();
+                    } catch (Exception e) {
+                        OPIBuilderPlugin.getLogger().log(Level.WARNING,
+                                "Failed to run UI task for " + o, e);
+                    }
+                }
+                resetAsyncEmpty.run();
+            });
+        } catch (Exception e) {
+            asyncEmpty = true;
+            OPIBuilderPlugin.getLogger().log(Level.WARNING,
+                    "Display has been disposed.", e);
         }
-        rcpDisplay.asyncExec(resetAsyncEmpty);
     }
 
     /**
@@ -179,7 +196,22 @@ public final class GUIRefreshThread implements Runnable {
      *            the ignorable UI task.
      */
     public synchronized void addIgnorableTask(final WidgetIgnorableUITask task) {
-        tasksQueue.remove(task);
+        if (tasksQueue.remove(task))
+            coalescedCount.increment();
         tasksQueue.add(task);
     }
+
+    /**
+     * @return number of UI tasks that were dropped because a newer one replaced them.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * @return number of UI tasks that were run.
+     */
+    public long getAppliedCount() {
+        return appliedCount.sum();
+    }
 }
@@ -0,0 +1,147 @@
+package org.csstudio.simplepv;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.diirt.datasource.util.Executors;
+
+/**
+ * A set of single-threaded executors (stripes) for PV change event notification. Each PV is bound to one stripe
+ * based on its name, so notifications of a single PV keep their order while notifications of different PVs are
+ * spread over multiple threads.
+ * <p>
+ * The executor keeps some counters (queue depth, executed tasks, latency between submission and execution) which
+ * can be used to find out whether notification falls behind.
+ */
+public class StripedExecutor {
+
+    private final Stripe[] stripes;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * @param stripeCount
+     *            number of stripes (threads). If smaller than 1, the number of available processors is used.
+     * @param poolName
+     *            prefix for the names of the notification threads.
+     */
+    public StripedExecutor(int stripeCount, String poolName) {
+        if (stripeCount < 1) {
+            stripeCount = Runtime.getRuntime().availableProcessors();
+        }
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(poolName + " " + i + "-");
+        }
+    }
+
+    /**
+     * Get the executor on which notifications for the given key (usually the PV name) should run. The same key
+     * always maps to the same single-threaded executor.
+     */
+    public Executor getExecutor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[(h & 0x7fffffff) % stripes.length];
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * @return number of tasks that were submitted, but did not yet start.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return number of tasks that were executed since this executor was created.
+     */
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * @return average time in milliseconds between submission and start of a task.
+     */
+    public double getAverageLatency() {
+        long count = executedCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMicros(totalLatency.sum()) / (count * 1000.0);
+    }
+
+    /**
+     * @return largest time in milliseconds between submission and start of a task.
+     */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatency.get());
+    }
+
+    /**
+     * Reset the latency counters. The queue depth is not affected.
+     */
+    public void resetStatistics() {
+        executedCount.reset();
+        totalLatency.reset();
+        maxLatency.set(0);
+    }
+
+    public void shutdown() {
+        for (Stripe stripe : stripes) {
+            stripe.pool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("stripes=%d, queued=%d, executed=%d, avgLatency=%.2fms, maxLatency=%dms",
+                stripes.length, getQueueDepth(), getExecutedCount(), getAverageLatency(), getMaxLatency());
+    }
+
+    private void recordLatency(long latency) {
+        executedCount.increment();
+        totalLatency.add(latency);
+        long max = maxLatency.get();
+        while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+            max = maxLatency.get();
+        }
+    }
+
+    private class Stripe implements Executor {
+
+        private final ThreadPoolExecutor pool;
+
+        Stripe(String threadName) {
+            pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    Executors.namedPool(threadName));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            long submitted = System.nanoTime();
+            queueDepth.incrementAndGet();
+            try {
+                pool.execute(() -> {
+                    queueDepth.decrementAndGet();
+                    recordLatency(System.nanoTime() - submitted);
+                    command.run();
+                });
+            } catch (RuntimeException e) {
+                queueDepth.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+}
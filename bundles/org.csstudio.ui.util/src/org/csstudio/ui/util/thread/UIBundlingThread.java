@@ -4,6 +4,9 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.PlatformUI;
@@ -20,10 +23,23 @@ import org.eclipse.ui.PlatformUI;
  * This thread sleeps for a time, which is below the processing capacity of
  * human eyes and brain - so the user will not feel any delay.
  *
+ * All tasks that are queued during one such period are run in a single
+ * Display.asyncExec(). Running them is limited to a time budget per frame,
+ * tasks that do not fit are carried over to the next frame. This keeps the
+ * UI responsive while for example thousands of PVs start up at once.
+ *
  * @author Sven Wende, Xihui Chen
  *
  */
 public final class UIBundlingThread implements Runnable {
+
+    private static final Logger log = Logger.getLogger(UIBundlingThread.class.getName());
+
+    /**
+     * Maximum time in nanoseconds spent on running tasks within one UI frame.
+     */
+    private static final long FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(12);
+
     /**
      * The singleton instance.
      */
@@ -37,6 +53,13 @@ public final class UIBundlingThread implements Runnable {
 
     private Display display;
 
+    /**
+     * Whether a batch was handed to the display, but did not yet run.
+     */
+    private final AtomicBoolean batchPending = new AtomicBoolean();
+
+    private final Runnable batch = this::runBatch;
+
     /**
      * Standard constructor.
      */
@@ -78,14 +101,37 @@ public final class UIBundlingThread implements Runnable {
     }
 
     /**
-     * Process the complete queue.
+     * Hand the queue to the UI thread, unless the previous batch is still waiting
+     * there. In that case the new tasks simply join that batch.
      */
-    private synchronized void processQueue() {
-        Runnable r;
-        while( (r=tasksQueue.poll()) != null){
-            display.asyncExec(r);
+    private void processQueue() {
+        if (batchPending.compareAndSet(false, true)) {
+            if (display.isDisposed()) {
+                tasksQueue.clear();
+                return;
+            }
+            display.asyncExec(batch);
         }
+    }
 
+    /**
+     * Run queued tasks on the UI thread until the queue is empty or the frame
+     * budget is used up. Remaining tasks are left for the next frame.
+     */
+    private void runBatch() {
+        batchPending.set(false);
+        long start = System.nanoTime();
+        Runnable r;
+        while ((r = tasksQueue.poll()) != null) {
+            try {
+                r.run();
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Error in UI task", e);
+            }
+            if (System.nanoTime() - start > FRAME_BUDGET) {
+                break;
+            }
+        }
     }
 
     /**
@@ -6,74 +6,110 @@ package org.diirt.datasource;
 
 import java.time.Duration;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Decoupler that scans the pv at the max rate. The scanning is done by the
+ * {@link ActiveScanner} shared by all decouplers of the same rate. Pvs of
+ * pure functions are only scanned when they had new events since the last
+ * scan, and periodically otherwise. All other pvs are scanned at every tick.
  *
  * @author carcassi
  */
 class ActiveScanDecoupler extends SourceDesiredRateDecoupler {
 
-    private volatile ScheduledFuture<?> scanTaskHandle;
+    private volatile ActiveScanner scanner;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ReadFunction<?> readFunction;
+    // Guarded by the scanner
+    int wheelSlot;
+    volatile boolean fullRate;
 
+    /**
+     * Creates a new decoupler.
+     *
+     * @param scannerExecutor the executor of the scanner
+     * @param maxDuration the time between scans
+     * @param listener the event callback
+     * @param readFunction the function of the pv, or null if unknown
+     */
     public ActiveScanDecoupler(ScheduledExecutorService scannerExecutor,
-            Duration maxDuration, DesiredRateEventListener listener) {
+            Duration maxDuration, DesiredRateEventListener listener, ReadFunction<?> readFunction) {
         super(scannerExecutor, maxDuration, listener);
+        this.readFunction = readFunction;
     }
 
     @Override
     void onStart() {
-        scanTaskHandle = getScannerExecutor().scheduleWithFixedDelay(new Runnable() {
-
-            @Override
-            public void run() {
-                if (!isStopped() && !isPaused() && !isEventProcessing()) {
-                    DesiredRateEvent event = new DesiredRateEvent();
-                    event.addType(DesiredRateEvent.Type.READ_CONNECTION);
-                    event.addType(DesiredRateEvent.Type.READ_EXCEPTION);
-                    event.addType(DesiredRateEvent.Type.VALUE);
-                    event.addType(DesiredRateEvent.Type.WRITE_CONNECTION);
-                    event.addType(DesiredRateEvent.Type.WRITE_EXCEPTION);
-                    sendDesiredRateEvent(event);
-                }
-            }
-        }, 0, getMaxDuration().toNanos(), TimeUnit.NANOSECONDS);
+        scanner = ActiveScanner.register(this);
+        markDirty();
     }
 
     @Override
     void onStop() {
-        if (scanTaskHandle != null) {
-            scanTaskHandle.cancel(false);
-            scanTaskHandle = null;
+        if (scanner != null) {
+            scanner.unregister(this);
+            scanner = null;
         } else {
             throw new IllegalStateException("Scan was never started");
         }
     }
 
+    @Override
+    void onResume() {
+        markDirty();
+    }
+
+    /**
+     * Marks that there is something new to scan, so that the pv is scanned
+     * at the next tick.
+     */
+    private void markDirty() {
+        ActiveScanner currentScanner = scanner;
+        if (currentScanner != null && dirty.compareAndSet(false, true)) {
+            currentScanner.markDirty(this);
+        }
+    }
+
+    /**
+     * Whether the pv only needs scanning after new events.
+     *
+     * @return true if the function of the pv is known to be pure
+     */
+    boolean isPure() {
+        return PureReadFunction.isPure(readFunction);
+    }
+
+    /**
+     * Called by the scanner right before the pv is scanned.
+     */
+    void clearDirty() {
+        dirty.set(false);
+    }
+
     @Override
     void newReadConnectionEvent() {
-        // Do nothing
+        markDirty();
     }
 
     @Override
     void newWriteConnectionEvent() {
-        // Do nothing
+        markDirty();
     }
 
     @Override
     void newValueEvent() {
-        // Do nothing
+        markDirty();
     }
 
     @Override
     void newReadExceptionEvent() {
-        // Do nothing
+        markDirty();
     }
 
     @Override
     void newWriteExceptionEvent() {
-        // Do nothing
+        markDirty();
     }
 
     @Override
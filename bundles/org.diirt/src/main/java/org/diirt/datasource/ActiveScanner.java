@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.diirt.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scans all the {@link ActiveScanDecoupler}s with the same rate and executor
+ * from a single periodic task.
+ * <p>
+ * Decouplers of pure functions (see {@link PureReadFunction}) are only sent
+ * events at a tick if they were marked dirty since the previous tick, so the
+ * cost of a tick depends on the number of changed pvs rather than on the number
+ * of open pvs. On top of that, they are spread over a hashed wheel that
+ * advances one slot per tick: the decouplers of the current slot are scanned
+ * even if nothing changed. This way every decoupler is scanned at least every
+ * {@link #WHEEL_REVOLUTION} (or every tick, for slower rates), which lets the
+ * directors of garbage collected readers close.
+ * <p>
+ * All other decouplers are scanned at every tick, as their value may change
+ * without any new event (e.g. functions of time). Purity is checked again
+ * after each scan, since formulas only know their function once evaluated.
+ *
+ * @author carcassi
+ */
+class ActiveScanner {
+
+    private static final Logger log = Logger.getLogger(ActiveScanner.class.getName());
+
+    /**
+     * Maximum interval between two scans of a pure decoupler without changes.
+     */
+    static final Duration WHEEL_REVOLUTION = Duration.ofSeconds(1);
+
+    // Shared by all scans
+    private static final DesiredRateEvent SCAN_EVENT = DesiredRateEvent.unmodifiable(
+            DesiredRateEvent.Type.READ_CONNECTION, DesiredRateEvent.Type.READ_EXCEPTION,
+            DesiredRateEvent.Type.VALUE, DesiredRateEvent.Type.WRITE_CONNECTION,
+            DesiredRateEvent.Type.WRITE_EXCEPTION);
+
+    // Guarded by itself
+    private static final Map<ScheduledExecutorService, Map<Long, ActiveScanner>> scanners = new IdentityHashMap<>();
+
+    private final ScheduledExecutorService scannerExecutor;
+    private final long periodNanos;
+    private final List<Set<ActiveScanDecoupler>> wheel;
+    private final Set<ActiveScanDecoupler> fullRateDecouplers = ConcurrentHashMap.newKeySet();
+    private final Queue<ActiveScanDecoupler> dirtyDecouplers = new ConcurrentLinkedQueue<>();
+
+    // Guarded by scanners
+    private int nextSlot;
+    private int size;
+    private ScheduledFuture<?> scanTaskHandle;
+
+    // Only accessed by the scan task, which never runs concurrently with itself
+    private final List<ActiveScanDecoupler> retainedDecouplers = new ArrayList<>();
+    private int currentSlot;
+
+    private ActiveScanner(ScheduledExecutorService scannerExecutor, long periodNanos) {
+        this.scannerExecutor = scannerExecutor;
+        this.periodNanos = periodNanos;
+        int slots = (int) Math.max(1, WHEEL_REVOLUTION.toNanos() / periodNanos);
+        wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Adds the decoupler to the scanner for its rate, creating and starting
+     * the scanner if needed.
+     *
+     * @param decoupler the decoupler to scan
+     * @return the scanner of the decoupler
+     */
+    static ActiveScanner register(ActiveScanDecoupler decoupler) {
+        synchronized (scanners) {
+            Map<Long, ActiveScanner> scannersByPeriod = scanners.get(decoupler.getScannerExecutor());
+            if (scannersByPeriod == null) {
+                scannersByPeriod = new HashMap<>();
+                scanners.put(decoupler.getScannerExecutor(), scannersByPeriod);
+            }
+            long periodNanos = decoupler.getMaxDuration().toNanos();
+            ActiveScanner scanner = scannersByPeriod.get(periodNanos);
+            if (scanner == null) {
+                scanner = new ActiveScanner(decoupler.getScannerExecutor(), periodNanos);
+                scannersByPeriod.put(periodNanos, scanner);
+                scanner.start();
+            }
+            scanner.add(decoupler, !decoupler.isPure());
+            scanner.size++;
+            return scanner;
+        }
+    }
+
+    /**
+     * Removes the decoupler from its scanner. The scanner is stopped when
+     * its last decoupler is removed.
+     *
+     * @param decoupler the decoupler to no longer scan
+     */
+    void unregister(ActiveScanDecoupler decoupler) {
+        synchronized (scanners) {
+            if (!remove(decoupler)) {
+                return;
+            }
+            size--;
+            if (size == 0) {
+                scanTaskHandle.cancel(false);
+                Map<Long, ActiveScanner> scannersByPeriod = scanners.get(scannerExecutor);
+                scannersByPeriod.remove(periodNanos);
+                if (scannersByPeriod.isEmpty()) {
+                    scanners.remove(scannerExecutor);
+                }
+            }
+        }
+    }
+
+    // Guarded by scanners
+    private void add(ActiveScanDecoupler decoupler, boolean fullRate) {
+        decoupler.fullRate = fullRate;
+        if (fullRate) {
+            fullRateDecouplers.add(decoupler);
+        } else {
+            decoupler.wheelSlot = nextSlot;
+            nextSlot = (nextSlot + 1) % wheel.size();
+            wheel.get(decoupler.wheelSlot).add(decoupler);
+        }
+    }
+
+    // Guarded by scanners
+    private boolean remove(ActiveScanDecoupler decoupler) {
+        if (decoupler.fullRate) {
+            return fullRateDecouplers.remove(decoupler);
+        } else {
+            return wheel.get(decoupler.wheelSlot).remove(decoupler);
+        }
+    }
+
+    /**
+     * Moves the decoupler between the wheel and the full rate scans, if its
+     * purity changed.
+     */
+    private void updateScanRate(ActiveScanDecoupler decoupler) {
+        boolean fullRate = !decoupler.isPure();
+        if (fullRate == decoupler.fullRate) {
+            return;
+        }
+        synchronized (scanners) {
+            // Not if it was unregistered in the meantime
+            if (fullRate != decoupler.fullRate && remove(decoupler)) {
+                add(decoupler, fullRate);
+            }
+        }
+    }
+
+    /**
+     * Schedules the decoupler for the next tick. A decoupler should only be
+     * marked once until it is scanned.
+     *
+     * @param decoupler a decoupler of this scanner
+     */
+    void markDirty(ActiveScanDecoupler decoupler) {
+        dirtyDecouplers.add(decoupler);
+    }
+
+    private void start() {
+        scanTaskHandle = scannerExecutor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                scan();
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void scan() {
+        ActiveScanDecoupler decoupler;
+        while ((decoupler = dirtyDecouplers.poll()) != null) {
+            if (decoupler.fullRate) {
+                // Scanned below
+                decoupler.clearDirty();
+            } else if (!scan(decoupler)) {
+                retainedDecouplers.add(decoupler);
+            }
+        }
+        // Decouplers that could not take the event yet are tried again next tick
+        dirtyDecouplers.addAll(retainedDecouplers);
+        retainedDecouplers.clear();
+
+        for (ActiveScanDecoupler fullRateDecoupler : fullRateDecouplers) {
+            scan(fullRateDecoupler);
+        }
+        for (ActiveScanDecoupler slotDecoupler : wheel.get(currentSlot)) {
+            scan(slotDecoupler);
+        }
+        currentSlot = (currentSlot + 1) % wheel.size();
+    }
+
+    /**
+     * Sends the scan event to the decoupler, if it can take it.
+     *
+     * @return false if the decoupler should be scanned again later
+     */
+    private boolean scan(ActiveScanDecoupler decoupler) {
+        if (decoupler.isStopped()) {
+            return true;
+        }
+        if (decoupler.isPaused() || decoupler.isEventProcessing()) {
+            return false;
+        }
+        decoupler.clearDirty();
+        try {
+            decoupler.sendDesiredRateEvent(SCAN_EVENT);
+            updateScanRate(decoupler);
+        } catch (RuntimeException ex) {
+            // Don't let one pv stop the scanning of all others
+            log.log(Level.WARNING, "Scan failed", ex);
+        }
+        return true;
+    }
+}
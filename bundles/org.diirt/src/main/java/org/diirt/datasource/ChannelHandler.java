@@ -110,6 +110,17 @@ public abstract class ChannelHandler {
      */
     protected abstract void write(Object newValue, ChannelWriteCallback callback);
 
+    /**
+     * Releases the resources of this handler. Called by the data source when
+     * it removes the handler after it was idle for too long
+     * (see {@link DataSource#setChannelIdleTimeout(java.time.Duration) }).
+     * The handler is not used anymore afterwards.
+     * <p>
+     * Empty implementation to be overridden.
+     */
+    protected void close() {
+    }
+
     /**
      * Returns true if it is connected.
      *
@@ -6,16 +6,23 @@ package org.diirt.datasource;
 
 import static org.diirt.util.Executors.namedPool;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -60,6 +67,15 @@ public abstract class DataSource {
     // Keeps track of the currently created channels
     private Map<String, ChannelHandler> usedChannels = new ConcurrentHashMap<>();
 
+    // Number of connected recipes for each channel handler, and since when the
+    // handlers without recipes are idle (nanoTime). Guarded by usedChannels
+    private final Map<ChannelHandler, Integer> channelReferences = new HashMap<>();
+    private final Map<ChannelHandler, Long> channelIdleSince = new HashMap<>();
+
+    private volatile Duration channelIdleTimeout;
+    private ScheduledFuture<?> evictionTaskHandle;
+    private final AtomicLong evictedChannelCount = new AtomicLong();
+
     /**
      * Returns a channel from the given name, either cached or it will create it.
      *
@@ -70,14 +86,157 @@ public abstract class DataSource {
     ChannelHandler channel(String channelName) {
         ChannelHandler channel = usedChannels.get(channelHandlerLookupName(channelName));
         if (channel == null) {
-            channel = createChannel(channelName);
-            if (channel == null)
-                return null;
-            usedChannels.put(channelHandlerRegisterName(channelName, channel), channel);
+            synchronized (usedChannels) {
+                channel = usedChannels.get(channelHandlerLookupName(channelName));
+                if (channel == null) {
+                    channel = createChannel(channelName);
+                    if (channel == null)
+                        return null;
+                    usedChannels.put(channelHandlerRegisterName(channelName, channel), channel);
+                    channelIdleSince.put(channel, System.nanoTime());
+                }
+            }
         }
         return channel;
     }
 
+    /**
+     * Returns a channel from the given name, and keeps it from being evicted until it is released.
+     *
+     * @param channelName
+     *            name of a channel
+     * @return a new or cached handler
+     */
+    private ChannelHandler acquireChannel(String channelName) {
+        synchronized (usedChannels) {
+            ChannelHandler channel = channel(channelName);
+            if (channel != null) {
+                Integer references = channelReferences.get(channel);
+                channelReferences.put(channel, references == null ? 1 : references + 1);
+                channelIdleSince.remove(channel);
+            }
+            return channel;
+        }
+    }
+
+    /**
+     * Releases a channel that was acquired with {@link #acquireChannel(String)}. The channel becomes idle when it is
+     * no longer used by any recipe.
+     *
+     * @param channel
+     *            the handler to release
+     */
+    private void releaseChannel(ChannelHandler channel) {
+        synchronized (usedChannels) {
+            Integer references = channelReferences.get(channel);
+            if (references == null) {
+                // Channel was not found when the recipe was connected
+                return;
+            }
+            if (references > 1) {
+                channelReferences.put(channel, references - 1);
+            } else {
+                channelReferences.remove(channel);
+                channelIdleSince.put(channel, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Changes how long channel handlers are kept after the last reader and writer is closed. Handlers that are idle
+     * for longer are removed, together with the last value they cached, and created again when needed.
+     * <p>
+     * By default, handlers are never removed. This should only be enabled if the handlers of this data source do not
+     * need to keep state between uses (e.g. local channels keep their value).
+     *
+     * @param channelIdleTimeout
+     *            the idle time after which handlers are removed; null to never remove them
+     */
+    public void setChannelIdleTimeout(Duration channelIdleTimeout) {
+        synchronized (usedChannels) {
+            this.channelIdleTimeout = channelIdleTimeout;
+            if (evictionTaskHandle != null) {
+                evictionTaskHandle.cancel(false);
+                evictionTaskHandle = null;
+            }
+            if (channelIdleTimeout != null) {
+                // Removal happens on the data source thread, after any pending connection
+                evictionTaskHandle = PVManager.getReadScannerExecutorService().scheduleWithFixedDelay(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        exec.execute(new Runnable() {
+
+                            @Override
+                            public void run() {
+                                evictIdleChannels();
+                            }
+                        });
+                    }
+                }, channelIdleTimeout.toNanos(), channelIdleTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Returns how long channel handlers are kept after the last reader and writer is closed.
+     *
+     * @return the idle timeout; null if handlers are never removed
+     */
+    public Duration getChannelIdleTimeout() {
+        return channelIdleTimeout;
+    }
+
+    private void evictIdleChannels() {
+        Duration timeout = channelIdleTimeout;
+        if (timeout == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        Set<ChannelHandler> evicted = new HashSet<>();
+        synchronized (usedChannels) {
+            Iterator<Map.Entry<ChannelHandler, Long>> iter = channelIdleSince.entrySet().iterator();
+            while (iter.hasNext()) {
+                Map.Entry<ChannelHandler, Long> entry = iter.next();
+                ChannelHandler channel = entry.getKey();
+                if (now - entry.getValue() >= timeout.toNanos() && channel.getUsageCounter() == 0) {
+                    iter.remove();
+                    evicted.add(channel);
+                }
+            }
+            // A handler may be registered under more than one name
+            usedChannels.values().removeAll(evicted);
+        }
+
+        for (ChannelHandler channel : evicted) {
+            try {
+                channel.close();
+            } catch (RuntimeException ex) {
+                log.log(Level.WARNING, "Couldn't close channel " + channel.getChannelName(), ex);
+            }
+            evictedChannelCount.incrementAndGet();
+            log.log(Level.FINE, "Removed idle channel {0}", channel.getChannelName());
+        }
+    }
+
+    /**
+     * Returns the number of channel handlers currently kept by this data source.
+     *
+     * @return the number of live channels
+     */
+    public int getLiveChannelCount() {
+        return usedChannels.size();
+    }
+
+    /**
+     * Returns the number of idle channel handlers that were removed since this data source was created.
+     *
+     * @return the number of evicted channels
+     */
+    public long getEvictedChannelCount() {
+        return evictedChannelCount.get();
+    }
+
     /**
      * Returns the lookup name to use to find the channel handler in the cache. By default, it returns the channel name
      * itself. If a datasource needs multiple different channel names to be the same channel handler (e.g. parts of the
@@ -149,7 +308,7 @@ public abstract class DataSource {
         for (final ChannelReadRecipe channelRecipe : readRecipe.getChannelReadRecipes()) {
             try {
                 String channelName = channelRecipe.getChannelName();
-                ChannelHandler channelHandler = channel(channelName);
+                ChannelHandler channelHandler = acquireChannel(channelName);
                 if (channelHandler == null) {
                     throw new RuntimeException("Channel named '" + channelName + "' not found");
                 }
@@ -203,6 +362,7 @@ public abstract class DataSource {
     public void disconnectRead(final ReadRecipe readRecipe) {
         // Find the channels to disconnect
         final Map<ChannelHandler, ChannelHandlerReadSubscription> handlers = new HashMap<>();
+        final List<ChannelHandler> releasedHandlers = new ArrayList<>();
         for (ChannelReadRecipe channelRecipe : readRecipe.getChannelReadRecipes()) {
             if (!readRecipes.contains(channelRecipe)) {
                 log.log(Level.WARNING, "ChannelReadRecipe {0} was disconnected but was never connected. Ignoring it.",
@@ -215,6 +375,7 @@ public abstract class DataSource {
                 // ignore it.
                 if (channelHandler != null) {
                     handlers.put(channelHandler, channelRecipe.getReadSubscription());
+                    releasedHandlers.add(channelHandler);
                 }
                 readRecipes.remove(channelRecipe);
             }
@@ -230,6 +391,9 @@ public abstract class DataSource {
                     ChannelHandlerReadSubscription channelHandlerReadSubscription = entry.getValue();
                     channelHandler.removeReader(channelHandlerReadSubscription);
                 }
+                for (ChannelHandler channelHandler : releasedHandlers) {
+                    releaseChannel(channelHandler);
+                }
             }
 
         });
@@ -259,7 +423,7 @@ public abstract class DataSource {
         for (ChannelWriteRecipe channelWriteRecipe : writeRecipe.getChannelWriteRecipes()) {
             try {
                 String channelName = channelWriteRecipe.getChannelName();
-                ChannelHandler handler = channel(channelName);
+                ChannelHandler handler = acquireChannel(channelName);
                 if (handler == null) {
                     throw new RuntimeException("Channel " + channelName + " does not exist");
                 }
@@ -311,6 +475,7 @@ public abstract class DataSource {
         }
 
         final Map<ChannelHandler, ChannelHandlerWriteSubscription> handlers = new HashMap<>();
+        final List<ChannelHandler> releasedHandlers = new ArrayList<>();
         for (ChannelWriteRecipe channelWriteRecipe : writeRecipe.getChannelWriteRecipes()) {
             if (!writeRecipes.contains(channelWriteRecipe)) {
                 log.log(Level.WARNING, "ChannelWriteRecipe {0} was unregistered but was never registered. Ignoring it.",
@@ -324,6 +489,7 @@ public abstract class DataSource {
                     // notification has already been sent
                     if (handler != null) {
                         handlers.put(handler, channelWriteRecipe.getWriteSubscription());
+                        releasedHandlers.add(handler);
                     }
                 } catch (Exception ex) {
                     // No point in sending the exception through the exception handler:
@@ -346,6 +512,9 @@ public abstract class DataSource {
                     ChannelHandlerWriteSubscription channelHandlerWriteSubscription = entry.getValue();
                     channelHandler.removeWrite(channelHandlerWriteSubscription);
                 }
+                for (ChannelHandler channelHandler : releasedHandlers) {
+                    releaseChannel(channelHandler);
+                }
             }
         });
     }
@@ -430,6 +599,7 @@ public abstract class DataSource {
      * Closes the DataSource and the resources associated with it.
      */
     public void close() {
+        setChannelIdleTimeout(null);
         exec.shutdownNow();
     }
 
@@ -4,6 +4,8 @@
  */
 package org.diirt.datasource;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -18,9 +20,28 @@ import java.util.concurrent.CopyOnWriteArrayList;
 class DesiredRateEvent {
     enum Type {READ_CONNECTION, WRITE_CONNECTION, VALUE, READ_EXCEPTION, WRITE_EXCEPTION, WRITE_SUCCEEDED, WRITE_FAILED};
 
-    private final List<Type> types = new CopyOnWriteArrayList<>();
+    private final List<Type> types;
     private volatile Exception writeException;
 
+    public DesiredRateEvent() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private DesiredRateEvent(List<Type> types) {
+        this.types = types;
+    }
+
+    /**
+     * Creates an event with the given types that can't be modified, and can
+     * therefore be shared.
+     *
+     * @param types the types of the event
+     * @return a new unmodifiable event
+     */
+    static DesiredRateEvent unmodifiable(Type... types) {
+        return new DesiredRateEvent(Collections.unmodifiableList(Arrays.asList(types)));
+    }
+
     public List<Type> getTypes() {
         return types;
     }
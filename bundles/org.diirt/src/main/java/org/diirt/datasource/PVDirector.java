@@ -412,5 +412,9 @@ public class PVDirector<T> {
         return desiredRateEventListener;
     }
 
+    ReadFunction<T> getReadFunction() {
+        return readFunction;
+    }
+
 
 }
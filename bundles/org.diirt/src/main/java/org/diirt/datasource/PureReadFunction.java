@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.diirt.datasource;
+
+/**
+ * A {@link ReadFunction} that can tell whether its value only changes when
+ * new values arrive for the channels it reads.
+ * <p>
+ * Readers of functions that are not pure, for example functions of the
+ * current time, have to be scanned at the max rate even when nothing changed.
+ *
+ * @param <R> result type
+ * @author carcassi
+ */
+public interface PureReadFunction<R> extends ReadFunction<R> {
+
+    /**
+     * Whether the next value can only differ from the last one if new values
+     * arrived for the channels read by this function.
+     *
+     * @return true if the function is currently pure
+     */
+    public boolean isPure();
+
+    /**
+     * Whether the given function is known to be pure. Collectors and caches
+     * only change with new values, functions that can't tell are not pure.
+     *
+     * @param function a read function
+     * @return true if the function is known to be pure
+     */
+    public static boolean isPure(ReadFunction<?> function) {
+        if (function instanceof Collector || function instanceof ValueCache) {
+            return true;
+        } else if (function instanceof PureReadFunction) {
+            return ((PureReadFunction<?>) function).isPure();
+        } else {
+            return false;
+        }
+    }
+}
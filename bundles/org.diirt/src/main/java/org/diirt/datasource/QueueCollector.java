@@ -4,7 +4,8 @@
  */
 package org.diirt.datasource;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -13,6 +14,11 @@ import java.util.List;
  * Always returns new value as every read clears the cache.
  * The values are returned oldest value first. When maxSize is reached,
  * the oldest values are discarded.
+ * <p>
+ * The values are kept in a ring buffer, so that discarding the oldest value
+ * does not shift the others. A read swaps the buffer with a second one,
+ * and returns a view of it: the returned list is valid until the read after
+ * the next one, and must not be modified.
  *
  * @param <T> the type contained in the queue
  * @author carcassi
@@ -20,8 +26,8 @@ import java.util.List;
 public class QueueCollector<T> implements Collector<T, List<T>> {
 
     private final Object lock = new Object();
-    private List<T> readBuffer;
-    private List<T> writeBuffer;
+    private Ring<T> readBuffer;
+    private Ring<T> writeBuffer;
     private int maxSize;
     private Runnable notification;
 
@@ -33,8 +39,8 @@ public class QueueCollector<T> implements Collector<T, List<T>> {
     public QueueCollector(int maxSize) {
         synchronized(lock) {
             this.maxSize = maxSize;
-            readBuffer = new ArrayList<>();
-            writeBuffer = new ArrayList<>();
+            readBuffer = new Ring<>();
+            writeBuffer = new Ring<>();
         }
     }
 
@@ -49,10 +55,7 @@ public class QueueCollector<T> implements Collector<T, List<T>> {
     public void writeValue(T newValue) {
         Runnable task;
         synchronized(lock) {
-            writeBuffer.add(newValue);
-            if (writeBuffer.size() > maxSize) {
-                writeBuffer.remove(0);
-            }
+            writeBuffer.add(newValue, maxSize);
             task = notification;
         }
         // Run task without holding the lock
@@ -64,7 +67,7 @@ public class QueueCollector<T> implements Collector<T, List<T>> {
     @Override
     public List<T> readValue() {
         synchronized(lock) {
-            List<T> data = writeBuffer;
+            Ring<T> data = writeBuffer;
             writeBuffer = readBuffer;
             writeBuffer.clear();
             readBuffer = data;
@@ -83,9 +86,7 @@ public class QueueCollector<T> implements Collector<T, List<T>> {
     public void setMaxSize(int maxSize) {
         synchronized(lock) {
             this.maxSize = maxSize;
-            while (writeBuffer.size() > maxSize) {
-                writeBuffer.remove(0);
-            }
+            writeBuffer.removeOldest(writeBuffer.size() - maxSize);
         }
     }
 
@@ -100,4 +101,77 @@ public class QueueCollector<T> implements Collector<T, List<T>> {
         }
     }
 
+    /**
+     * Ring buffer that grows as needed, up to the max size of the queue.
+     */
+    private static class Ring<T> extends AbstractList<T> {
+
+        private Object[] data = new Object[16];
+        private int start;
+        private int size;
+
+        void add(T value, int maxSize) {
+            if (size >= maxSize) {
+                removeOldest(size - maxSize + 1);
+                if (maxSize <= 0) {
+                    return;
+                }
+            }
+            if (size == data.length) {
+                // Grow, unwrapping the values at the beginning of the new array
+                Object[] newData = new Object[Math.min(maxSize, data.length * 2)];
+                int firstPart = Math.min(size, data.length - start);
+                System.arraycopy(data, start, newData, 0, firstPart);
+                System.arraycopy(data, 0, newData, firstPart, size - firstPart);
+                data = newData;
+                start = 0;
+            }
+            int index = start + size;
+            if (index >= data.length) {
+                index -= data.length;
+            }
+            data[index] = value;
+            size++;
+        }
+
+        void removeOldest(int count) {
+            count = Math.min(count, size);
+            if (count <= 0) {
+                return;
+            }
+            // Release the references
+            int end = start + count;
+            if (end <= data.length) {
+                Arrays.fill(data, start, end, null);
+            } else {
+                Arrays.fill(data, start, data.length, null);
+                Arrays.fill(data, 0, end - data.length, null);
+            }
+            size -= count;
+            start = (size == 0) ? 0 : end % data.length;
+        }
+
+        @Override
+        public void clear() {
+            removeOldest(size);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            index += start;
+            if (index >= data.length) {
+                index -= data.length;
+            }
+            return (T) data[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
@@ -21,6 +21,7 @@ class ScannerParameters {
     private Duration timeout;
     private String timeoutMessage;
     private DesiredRateEventListener listener;
+    private ReadFunction<?> readFunction;
 
     public ScannerParameters type(Type type) {
         this.type = type;
@@ -42,6 +43,7 @@ class ScannerParameters {
 
     public ScannerParameters readerDirector(PVDirector readerDirector) {
         this.listener = readerDirector.getDesiredRateEventListener();
+        this.readFunction = readerDirector.getReadFunction();
         return this;
     }
 
@@ -76,7 +78,7 @@ class ScannerParameters {
             if (maxDuration == null) {
                 throw new NullPointerException("Active scanner requires a maxDuration");
             }
-            return new ActiveScanDecoupler(scannerExecutor, maxDuration, listener);
+            return new ActiveScanDecoupler(scannerExecutor, maxDuration, listener, readFunction);
         }
         if (type == Type.PASSIVE) {
             if (scannerExecutor == null) {
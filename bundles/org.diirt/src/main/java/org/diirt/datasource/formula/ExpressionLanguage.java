@@ -191,6 +191,12 @@ public class ExpressionLanguage {
         return new FormulaFunctionReadExpression(args, readFunction, FormulaFunctions.format(function, argNames));
     }
 
+    static DesiredRateExpression<?> function(String function, DesiredRateExpressionList<?> args, FormulaAst ast) {
+        DesiredRateExpression<?> expression = function(function, args);
+        ((FormulaReadFunction) expression.getFunction()).shareResults(ast);
+        return expression;
+    }
+
     static <T> WriteExpression<T> readOnlyWriteExpression(String errorMessage) {
         return new ReadOnlyWriteExpression<>(errorMessage, "");
     }
@@ -8,6 +8,7 @@ import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -63,6 +64,22 @@ public class FormulaAst {
          */
         ID};
 
+    /**
+     * Maximum number of parsed formulas that are kept. The least recently
+     * used formula is evicted first.
+     */
+    private static final int MAX_PARSED_FORMULAS = 1000;
+
+    // ASTs are immutable, so the same AST is returned for the same formula text
+    private static final Map<String, FormulaAst> parsedFormulas = new LinkedHashMap<String, FormulaAst>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FormulaAst> eldest) {
+            return size() > MAX_PARSED_FORMULAS;
+        }
+    };
+
     private final Type type;
     private final List<FormulaAst> children;
     private final Object value;
@@ -270,17 +287,25 @@ public class FormulaAst {
         if (ast != null) {
             return ast;
         }
-        formula = formula.substring(1);
+        synchronized (parsedFormulas) {
+            ast = parsedFormulas.get(formula);
+        }
+        if (ast != null) {
+            return ast;
+        }
 
         try {
-            ast = createParser(formula).formula();
+            ast = createParser(formula.substring(1)).formula();
             if (ast == null) {
                 throw new IllegalArgumentException("Parsing failed");
             }
-            return ast;
         } catch (Exception ex) {
             throw new IllegalArgumentException("Error parsing formula: " + ex.getMessage(), ex);
         }
+        synchronized (parsedFormulas) {
+            parsedFormulas.put(formula, ast);
+        }
+        return ast;
     }
 
     private static FormulaAst staticChannel(String formula) {
@@ -338,7 +363,7 @@ public class FormulaAst {
                 for (FormulaAst child : getChildren()) {
                     expressions.and(child.toExpression());
                 }
-                return ExpressionLanguage.function((String) getValue(), expressions);
+                return ExpressionLanguage.function((String) getValue(), expressions, this);
             default:
                 throw new IllegalArgumentException("Unsupported type " + getType() + " for ast");
         }
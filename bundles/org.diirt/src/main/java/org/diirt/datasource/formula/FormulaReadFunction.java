@@ -5,9 +5,14 @@
 package org.diirt.datasource.formula;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import org.diirt.datasource.PVDirector;
+import org.diirt.datasource.PureReadFunction;
 import org.diirt.datasource.ReadFunction;
 import org.diirt.vtype.ValueUtil;
 
@@ -15,7 +20,7 @@ import org.diirt.vtype.ValueUtil;
  *
  * @author carcassi
  */
-class FormulaReadFunction implements ReadFunction<Object> {
+class FormulaReadFunction implements PureReadFunction<Object> {
 
     public final List<ReadFunction<?>> argumentFunctions;
     public final Collection<FormulaFunction> formulaMatches;
@@ -25,6 +30,12 @@ class FormulaReadFunction implements ReadFunction<Object> {
     public Object lastValue;
     public volatile PVDirector<?> director;
 
+    private static final int MAX_CACHED_SIGNATURES = 16;
+    // Classes of the arguments last accepted by lastFormula
+    private final Class<?>[] argumentClasses;
+    private final Map<List<Class<?>>, FormulaFunction> matchesBySignature = new HashMap<>();
+    private SharedFormulaResult sharedResult;
+
     FormulaReadFunction(List<ReadFunction<?>> argumentFunctions, Collection<FormulaFunction> formulaMatches, String functionName) {
         this.argumentFunctions = argumentFunctions;
         this.formulaMatches = formulaMatches;
@@ -32,33 +43,66 @@ class FormulaReadFunction implements ReadFunction<Object> {
         for (ReadFunction<?> argumentFunction : argumentFunctions) {
             argumentValues.add(null);
         }
+        this.argumentClasses = new Class<?>[argumentFunctions.size()];
         this.functionName = functionName;
     }
 
+    /**
+     * Shares the results with all other readers of equal formulas.
+     *
+     * @param ast the formula node of this function
+     */
+    void shareResults(FormulaAst ast) {
+        this.sharedResult = SharedFormulaResult.of(ast);
+    }
+
     void setDirector(PVDirector<?> director) {
         this.director = director;
     }
 
+    /**
+     * Whether the last formula and all arguments are pure. Before the first
+     * evaluation the formula is not known, and the function is not pure.
+     */
+    @Override
+    public boolean isPure() {
+        FormulaFunction formula = lastFormula;
+        if (formula == null || !formula.isPure()) {
+            return false;
+        }
+        for (ReadFunction<?> argumentFunction : argumentFunctions) {
+            if (!PureReadFunction.isPure(argumentFunction)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
    @Override
     public Object readValue() {
         if (formulaMatches.isEmpty()) {
             throw new RuntimeException("No function named '" + functionName + "'  is defined");
         }
 
-        List<Object> previousValues = new ArrayList<>(argumentValues);
+        // Compare each argument in place, instead of copying the previous ones
+        boolean changed = false;
         for (int i = 0; i < argumentFunctions.size(); i++) {
-            argumentValues.set(i, argumentFunctions.get(i).readValue());
+            Object newValue = argumentFunctions.get(i).readValue();
+            if (!changed && !Objects.equals(argumentValues.get(i), newValue)) {
+                changed = true;
+            }
+            argumentValues.set(i, newValue);
         }
-        if (previousValues.equals(argumentValues) && lastFormula != null && lastFormula.isPure()) {
+        if (!changed && lastFormula != null && lastFormula.isPure()) {
             return lastValue;
         }
 
-        if (lastFormula == null || !FormulaFunctions.matchArgumentTypes(argumentValues, lastFormula)) {
+        if (lastFormula == null || !lastFormulaMatches()) {
             if (lastFormula instanceof StatefulFormulaFunction) {
                 ((StatefulFormulaFunction) lastFormula).dispose();
             }
 
-            lastFormula = FormulaFunctions.findFirstMatch(argumentValues, formulaMatches);
+            lastFormula = findMatch();
             // If the function is stateful, create a new copy
             // The copy will be kept until the same match works:
             // is that the right behavior?
@@ -69,6 +113,12 @@ class FormulaReadFunction implements ReadFunction<Object> {
             if (lastFormula instanceof DynamicFormulaFunction) {
                 ((DynamicFormulaFunction) lastFormula).setDirector(director);
             }
+
+            if (lastFormula != null) {
+                recordArgumentClasses();
+            } else {
+                Arrays.fill(argumentClasses, null);
+            }
         }
 
         if (lastFormula == null) {
@@ -87,8 +137,74 @@ class FormulaReadFunction implements ReadFunction<Object> {
             throw new RuntimeException("Can't find match for function '" + functionName + "'  and arguments " + typeNames);
         }
 
-        lastValue = lastFormula.calculate(argumentValues);
+        if (sharedResult != null && lastFormula.isPure() && !(lastFormula instanceof DynamicFormulaFunction)) {
+            Object result = sharedResult.get(argumentValues);
+            if (result == null) {
+                result = lastFormula.calculate(argumentValues);
+                sharedResult.set(argumentValues, result);
+            }
+            lastValue = result;
+        } else {
+            lastValue = lastFormula.calculate(argumentValues);
+        }
         return lastValue;
     }
 
+    /**
+     * Whether the last formula accepts the current arguments. The type check
+     * is skipped if the arguments have the same classes as the last time
+     * they were accepted.
+     */
+    private boolean lastFormulaMatches() {
+        if (sameArgumentClasses()) {
+            return true;
+        }
+        if (FormulaFunctions.matchArgumentTypes(argumentValues, lastFormula)) {
+            recordArgumentClasses();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean sameArgumentClasses() {
+        for (int i = 0; i < argumentClasses.length; i++) {
+            Object value = argumentValues.get(i);
+            // Null arguments are only accepted when looking for a new match
+            if (value == null || value.getClass() != argumentClasses[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the classes of the current arguments as accepted by the last
+     * formula.
+     */
+    private void recordArgumentClasses() {
+        for (int i = 0; i < argumentClasses.length; i++) {
+            Object value = argumentValues.get(i);
+            argumentClasses[i] = (value == null) ? null : value.getClass();
+        }
+    }
+
+    /**
+     * Finds the first formula that accepts the current arguments. The match
+     * is cached for each signature, that is the list of argument classes.
+     */
+    private FormulaFunction findMatch() {
+        List<Class<?>> signature = new ArrayList<>(argumentValues.size());
+        for (Object value : argumentValues) {
+            signature.add((value == null) ? null : value.getClass());
+        }
+        if (matchesBySignature.containsKey(signature)) {
+            return matchesBySignature.get(signature);
+        }
+        FormulaFunction match = FormulaFunctions.findFirstMatch(argumentValues, formulaMatches);
+        if (matchesBySignature.size() < MAX_CACHED_SIGNATURES) {
+            matchesBySignature.put(signature, match);
+        }
+        return match;
+    }
+
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2010-14 diirt developers. See COPYRIGHT.TXT
+ * All rights reserved. Use is subject to license terms. See LICENSE.TXT
+ */
+package org.diirt.datasource.formula;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * The last result of a formula function node, shared by all the readers
+ * of equal formulas.
+ * <p>
+ * If many pvs use the same pure sub-expression over the same channels,
+ * they will read the same channel values: the first reader calculates
+ * the result, and the others reuse it as long as the arguments are the same.
+ * Only the arguments that come from channels or other functions are compared,
+ * since literal arguments are the same for equal formulas.
+ * <p>
+ * The result, and the arguments it was calculated for, are only kept as
+ * long as a reader of an equal node is open.
+ *
+ * @author carcassi
+ */
+class SharedFormulaResult {
+
+    // Entries are kept as long as readers hold on to the result, which holds
+    // on to its key. The value is weak, or it would keep its own key alive.
+    private static final Map<FormulaAst, WeakReference<SharedFormulaResult>> results = new WeakHashMap<>();
+
+    private final FormulaAst ast;
+    private final boolean[] variableArguments;
+    private final Object[] arguments;
+    private Object result;
+
+    private SharedFormulaResult(FormulaAst ast) {
+        this.ast = ast;
+        List<FormulaAst> children = ast.getChildren();
+        variableArguments = new boolean[children.size()];
+        for (int i = 0; i < variableArguments.length; i++) {
+            FormulaAst.Type type = children.get(i).getType();
+            variableArguments[i] = type == FormulaAst.Type.CHANNEL || type == FormulaAst.Type.OP;
+        }
+        arguments = new Object[children.size()];
+    }
+
+    /**
+     * The shared result for the given function node.
+     *
+     * @param ast an OP node
+     * @return the shared result
+     */
+    static SharedFormulaResult of(FormulaAst ast) {
+        synchronized (results) {
+            WeakReference<SharedFormulaResult> ref = results.get(ast);
+            SharedFormulaResult result = (ref == null) ? null : ref.get();
+            if (result == null) {
+                result = new SharedFormulaResult(ast);
+                // An equal key would be kept on put, but only the new one is held by the result
+                results.remove(ast);
+                results.put(result.ast, new WeakReference<>(result));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The result calculated for the same arguments, if any.
+     *
+     * @param argumentValues the current arguments
+     * @return the shared result; null if it was calculated for other arguments
+     */
+    synchronized Object get(List<Object> argumentValues) {
+        if (result == null || argumentValues.size() != arguments.length) {
+            return null;
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            if (variableArguments[i] && !Objects.equals(arguments[i], argumentValues.get(i))) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Shares the result calculated for the given arguments.
+     *
+     * @param argumentValues the arguments of the calculation
+     * @param result the result
+     */
+    synchronized void set(List<Object> argumentValues, Object result) {
+        if (argumentValues.size() != arguments.length) {
+            return;
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = variableArguments[i] ? argumentValues.get(i) : null;
+        }
+        this.result = result;
+    }
+}
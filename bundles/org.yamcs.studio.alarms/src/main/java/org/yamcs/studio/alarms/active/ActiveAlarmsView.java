@@ -1,5 +1,12 @@
 package org.yamcs.studio.alarms.active;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.resource.JFaceColors;
 import org.eclipse.jface.resource.JFaceResources;
@@ -16,6 +23,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.part.ViewPart;
 import org.yamcs.protobuf.AlarmData;
+import org.yamcs.protobuf.AlarmNotificationType;
 import org.yamcs.protobuf.Mdb.UnitInfo;
 import org.yamcs.protobuf.ParameterAlarmData;
 import org.yamcs.protobuf.Pvalue.ParameterValue;
@@ -24,14 +32,21 @@ import org.yamcs.studio.alarms.AlarmsPlugin;
 import org.yamcs.studio.core.model.AlarmCatalogue;
 import org.yamcs.studio.core.model.AlarmListener;
 import org.yamcs.studio.core.ui.XtceSubSystemNode;
+import org.yamcs.studio.core.ui.XtceTreeNode;
 import org.yamcs.studio.core.ui.YamcsUIPlugin;
 import org.yamcs.utils.StringConverter;
 
 public class ActiveAlarmsView extends ViewPart implements AlarmListener {
 
+    private static final Logger log = Logger.getLogger(ActiveAlarmsView.class.getName());
+
     private TreeViewer viewer;
     private ActiveAlarmsContentProvider contentProvider;
 
+    // Alarm updates not yet shown. Drained in one go on the UI thread.
+    private Queue<AlarmData> pendingAlarms = new ConcurrentLinkedQueue<>();
+    private AtomicBoolean drainScheduled = new AtomicBoolean();
+
     private Image infoIcon;
     private Image watchIcon;
     private Image warningIcon;
@@ -267,16 +282,70 @@ public class ActiveAlarmsView extends ViewPart implements AlarmListener {
             return;
         }
 
-        Display.getDefault().asyncExec(() -> {
+        pendingAlarms.offer(alarmData);
+        if (drainScheduled.compareAndSet(false, true)) {
+            Display.getDefault().asyncExec(() -> drainPendingAlarms());
+        }
+    }
+
+    /**
+     * Shows all alarm updates that arrived since the last drain. Only the latest update of each alarm is applied, and
+     * only to the tree item of that alarm.
+     */
+    private void drainPendingAlarms() {
+        drainScheduled.set(false);
+        Map<String, AlarmData> latestByName = takeLatest(pendingAlarms);
+        if (latestByName.isEmpty() || viewer.getTree().isDisposed()) {
+            return;
+        }
+
+        viewer.getTree().setRedraw(false);
+        try {
+            latestByName.forEach((qname, alarmData) -> applyAlarmData(viewer, contentProvider, qname, alarmData));
+        } finally {
+            viewer.getTree().setRedraw(true);
+        }
+    }
+
+    /**
+     * Empties the queue, and returns the latest update of each alarm by qualified name, in order of last update.
+     */
+    static Map<String, AlarmData> takeLatest(Queue<AlarmData> alarms) {
+        Map<String, AlarmData> latestByName = new LinkedHashMap<>();
+        AlarmData alarmData;
+        while ((alarmData = alarms.poll()) != null) {
             ParameterAlarmData parameterDetail = alarmData.getParameterDetail();
             ParameterValue triggerValue = parameterDetail.getTriggerValue();
             String qname = triggerValue.getId().getName();
             if (!qname.startsWith("/")) {
-                throw new IllegalArgumentException("Unexpected id " + qname);
+                log.warning("Unexpected id " + qname);
+                continue;
             }
-            contentProvider.addElement(qname, alarmData);
-            viewer.refresh();
-        });
+            latestByName.remove(qname); // Keep in order of last update
+            latestByName.put(qname, alarmData);
+        }
+        return latestByName;
+    }
+
+    static void applyAlarmData(TreeViewer viewer, ActiveAlarmsContentProvider contentProvider, String qname,
+            AlarmData alarmData) {
+        if (alarmData.getType() == AlarmNotificationType.CLEARED) {
+            XtceTreeNode<AlarmData> removed = contentProvider.removeElement(qname);
+            if (removed != null) {
+                viewer.remove(removed);
+            }
+            return;
+        }
+
+        XtceTreeNode<AlarmData> node = contentProvider.getElement(qname);
+        if (node instanceof XtceAlarmNode) {
+            ((XtceAlarmNode) node).setAlarmData(alarmData);
+            viewer.update(node, null);
+        } else {
+            XtceTreeNode<AlarmData> added = contentProvider.addElement(qname, alarmData);
+            Object parent = (added.getParent() != null) ? added.getParent() : viewer.getInput();
+            viewer.add(parent, added);
+        }
     }
 
     public void collapseAll() {
@@ -32,6 +32,10 @@ public class XtceAlarmNode implements XtceTreeNode<AlarmData> {
         return alarmData;
     }
 
+    public void setAlarmData(AlarmData alarmData) {
+        this.alarmData = alarmData;
+    }
+
     @Override
     public boolean equals(Object obj) {
         // Compare equality based on Alarm ID, the main use of this is to
@@ -158,26 +158,6 @@ public class ArchivePanel extends JPanel implements PropertyChangeListener {
             return Long.signum(startInstant - a.startInstant);
         }
 
-        // merge two records if close enough to eachother
-        public boolean merge(IndexChunkSpec t, long mergeTime) {
-            boolean merge = false;
-            if (tmcount == 1) {
-                if (t.startInstant - stopInstant < mergeTime) {
-                    merge = true;
-                }
-            } else {
-                float dist = (stopInstant - startInstant) / ((float) (tmcount - 1));
-                if (t.startInstant - stopInstant < dist + mergeTime) {
-                    merge = true;
-                }
-            }
-            if (merge) {
-                stopInstant = t.stopInstant;
-                tmcount += t.tmcount;
-            }
-            return merge;
-        }
-
         @Override
         public String toString() {
             return "start: " + startInstant + " stop: " + stopInstant + " count:" + tmcount;
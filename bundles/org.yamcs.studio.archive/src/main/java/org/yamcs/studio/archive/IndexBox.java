@@ -15,7 +15,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.TreeSet;
 import java.util.prefs.Preferences;
 
 import javax.swing.BorderFactory;
@@ -24,11 +23,11 @@ import javax.swing.BoxLayout;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.UIManager;
 import javax.swing.border.Border;
 
 import org.yamcs.protobuf.Yamcs.ArchiveRecord;
 import org.yamcs.protobuf.Yamcs.NamedObjectId;
-import org.yamcs.studio.archive.ArchivePanel.IndexChunkSpec;
 
 /**
  * Represents a collection of IndexLine shown vertically
@@ -48,7 +47,7 @@ public class IndexBox extends Box {
 
     HashMap<String, IndexLineSpec> allPackets;
     HashMap<String, ArrayList<IndexLineSpec>> groups;
-    HashMap<String, TreeSet<IndexChunkSpec>> tmData;
+    HashMap<String, IndexChunkStore> tmData;
     private ZoomSpec zoom;
     private String name;
 
@@ -64,6 +63,7 @@ public class IndexBox extends Box {
     private List<IndexLine> indexLines = new ArrayList<>();
 
     private JLabel titleLabel;
+    private Font labelFont;
 
     IndexBox(DataView dataView, String name) {
         super(BoxLayout.Y_AXIS);
@@ -162,7 +162,6 @@ public class IndexBox extends Box {
     }
 
     public void receiveArchiveRecords(List<ArchiveRecord> records) {
-        String[] nameparts;
         synchronized (tmData) {
             // progressMonitor.setProgress(30);
             // progressMonitor.setNote("Receiving data");
@@ -170,55 +169,57 @@ public class IndexBox extends Box {
             for (ArchiveRecord r : records) {
                 // debugLog(r.packet+"\t"+r.num+"\t"+new Date(r.first)+"\t"+new Date(r.last));
                 NamedObjectId id = r.getId();
-                String grpName = null;
-                String shortName = null;
-                // split the id into group->name
-                if (!id.hasNamespace()) {
-                    int idx = id.getName().lastIndexOf("/");
-                    if (idx != -1) {
-                        grpName = id.getName().substring(0, idx + 1);
-                        shortName = id.getName().substring(idx + 1);
-                    }
-                }
-                if (grpName == null) {
-                    nameparts = id.getName().split("[_\\.]", 2);
-                    if (nameparts.length > 1) {
-                        grpName = nameparts[0];
-                        shortName = nameparts[1].replaceFirst("INST_", "").replaceFirst("Tlm_Pkt_", "");
-                    } else {
-                        grpName = "";
-                        shortName = id.getName();
-                    }
-                }
-                if (!tmData.containsKey(id.getName())) {
-                    tmData.put(id.getName(), new TreeSet<IndexChunkSpec>());
-                }
-                TreeSet<IndexChunkSpec> al = tmData.get(id.getName());
-                String info = r.hasInfo() ? r.getInfo() : null;
-                IndexChunkSpec tnew = new IndexChunkSpec(r.getYamcsFirst(), r.getYamcsLast(), r.getNum(), info);
-                IndexChunkSpec told = al.floor(tnew);
-                if ((told == null) || (mergeTime == -1) || (!told.merge(tnew, mergeTime))) {
-                    al.add(tnew);
-                }
-                if (!allPackets.containsKey(id.getName())) {
-                    IndexLineSpec pkt = new IndexLineSpec(id.getName(), grpName, shortName);
-                    allPackets.put(id.getName(), pkt);
-                    ArrayList<IndexLineSpec> plvec;
-                    if ((plvec = groups.get(grpName)) == null) {
-                        plvec = new ArrayList<>();
-                        groups.put(grpName, plvec);
-                    }
-                    plvec.add(pkt);
+                IndexChunkStore store = tmData.get(id.getName());
+                if (store == null) {
+                    // First record of this line. Its name is kept as key for all further records.
+                    store = new IndexChunkStore();
+                    tmData.put(id.getName(), store);
+                    addIndexLineSpec(id);
                 }
+                store.add(r.getYamcsFirst(), r.getYamcsLast(), r.getNum(), mergeTime);
             }
             titleLabel.setText(name);
         }
     }
 
+    private void addIndexLineSpec(NamedObjectId id) {
+        String grpName = null;
+        String shortName = null;
+        // split the id into group->name
+        if (!id.hasNamespace()) {
+            int idx = id.getName().lastIndexOf("/");
+            if (idx != -1) {
+                grpName = id.getName().substring(0, idx + 1);
+                shortName = id.getName().substring(idx + 1);
+            }
+        }
+        if (grpName == null) {
+            String[] nameparts = id.getName().split("[_\\.]", 2);
+            if (nameparts.length > 1) {
+                grpName = nameparts[0];
+                shortName = nameparts[1].replaceFirst("INST_", "").replaceFirst("Tlm_Pkt_", "");
+            } else {
+                grpName = "";
+                shortName = id.getName();
+            }
+        }
+        if (!allPackets.containsKey(id.getName())) {
+            IndexLineSpec pkt = new IndexLineSpec(id.getName(), grpName, shortName);
+            allPackets.put(id.getName(), pkt);
+            ArrayList<IndexLineSpec> plvec;
+            if ((plvec = groups.get(grpName)) == null) {
+                plvec = new ArrayList<>();
+                groups.put(grpName, plvec);
+            }
+            plvec.add(pkt);
+        }
+    }
+
     public void startReloading() {
         allPackets.clear();
         groups.clear();
         tmData.clear();
+        TimelineTileCache.clear();
     }
 
     public List<String> getPacketsForSelection(Selection selection) {
@@ -251,39 +252,28 @@ public class IndexBox extends Box {
         final int stopx = zoom.getPixels();
         final Insets in = indexLine.getInsets();
         final int panelw = zoom.getPixels();
-        JLabel pktlab;
-        Font font = null;
-        int x1, y = 0;// , count = 0;
 
         indexLine.removeAll();
 
         // debugLog("redrawTmPanel() "+pkt.name+" mark 1");
-        // set labels
-        x1 = 10;
+        // labels are painted by the line itself, only where visible
+        if (labelFont == null) {
+            labelFont = UIManager.getFont("Label.font");
+            labelFont = labelFont.deriveFont((float) (labelFont.getSize() - 3));
+        }
+        indexLine.setLabel(pkt.lineName, labelFont, PACKET_LABEL_COLOR);
         indexLine.setBackground(Color.RED);
-        do {
-            pktlab = new JLabel(pkt.lineName);
-            pktlab.setForeground(PACKET_LABEL_COLOR);
-            if (font == null) {
-                font = pktlab.getFont();
-                font = font.deriveFont((float) (font.getSize() - 3));
-            }
-            pktlab.setFont(font);
-            pktlab.setBounds(x1 + in.left, in.top, pktlab.getPreferredSize().width, pktlab.getPreferredSize().height);
-            indexLine.add(pktlab);
-
-            if (y == 0) {
-                y = in.top + pktlab.getSize().height;
-                indexLine.setPreferredSize(new Dimension(panelw, y + tmRowHeight + in.bottom));
-                indexLine.setMinimumSize(indexLine.getPreferredSize());
-                indexLine.setMaximumSize(indexLine.getPreferredSize());
-            }
-            x1 += 600;
-        } while (x1 < panelw - pktlab.getSize().width);
+        int y = in.top + indexLine.getFontMetrics(labelFont).getHeight();
+        indexLine.setPreferredSize(new Dimension(panelw, y + tmRowHeight + in.bottom));
+        indexLine.setMinimumSize(indexLine.getPreferredSize());
+        indexLine.setMaximumSize(indexLine.getPreferredSize());
 
-        TreeSet<IndexChunkSpec> ts = tmData.get(pkt.lineName);
-        if (ts != null) {
-            Timeline tmt = new Timeline(this, pkt, ts, zoom, in.left);
+        IndexChunkStore store;
+        synchronized (tmData) {
+            store = tmData.get(pkt.lineName);
+        }
+        if (store != null) {
+            Timeline tmt = new Timeline(this, pkt, store, zoom, in.left);
             tmt.setBounds(in.left, y, stopx, tmRowHeight);
             indexLine.add(tmt);
         }
@@ -0,0 +1,221 @@
+package org.yamcs.studio.archive;
+
+import java.util.Arrays;
+
+/**
+ * Index chunks of one index line, stored column-wise in primitive arrays and sorted by start instant.
+ * <p>
+ * Chunks are added as the index records are received, and close chunks are merged on the way (see
+ * {@link IndexBox#setMergeTime(long)}). Records mostly arrive in order, so adding a chunk is usually an append.
+ * <p>
+ * For drawing zoomed out views, the store keeps a pyramid of coverage levels. Level {@code k} holds the chunks merged
+ * over all gaps shorter than {@code 1s << k}, which is a level of detail where a merged gap would be less than one
+ * pixel wide. Levels are built when first needed, and dropped whenever a chunk is added.
+ * <p>
+ * All methods may be called from any thread.
+ */
+class IndexChunkStore {
+
+    // Smallest gap that is merged by the coverage levels
+    private static final long MIN_LEVEL_GAP = 1000;
+    private static final int MAX_LEVEL = 40;
+
+    private long[] starts = new long[16];
+    private long[] stops = new long[16];
+    private int[] counts = new int[16];
+    // Running maximum of stops. Chunks may overlap, so stops alone are not sorted.
+    private long[] maxStops = new long[16];
+    private int size;
+
+    private Coverage[] levels = new Coverage[MAX_LEVEL + 1];
+    private int version;
+
+    /**
+     * Receives the start, stop and count of each chunk within a queried range.
+     */
+    interface ChunkVisitor {
+        void visit(long start, long stop, int count);
+    }
+
+    /**
+     * Adds a chunk, merging it into the preceding chunk if that one is close enough.
+     *
+     * @param mergeTime
+     *            maximum gap for merging, or -1 for no merging
+     */
+    synchronized void add(long start, long stop, int count, long mergeTime) {
+        version++;
+        Arrays.fill(levels, null);
+
+        int index;
+        if (size == 0 || start > starts[size - 1]) {
+            index = size;
+        } else {
+            index = Arrays.binarySearch(starts, 0, size, start);
+            if (index >= 0) {
+                // Same start as an existing chunk, only kept if it can be merged
+                if (mergeTime != -1) {
+                    merge(index, start, stop, count, mergeTime);
+                }
+                return;
+            }
+            index = -index - 1;
+        }
+
+        int floor = index - 1;
+        if (floor >= 0 && mergeTime != -1 && merge(floor, start, stop, count, mergeTime)) {
+            return;
+        }
+        insert(index, start, stop, count);
+    }
+
+    // merge a chunk into the one at the given index, if close enough to eachother
+    private boolean merge(int index, long start, long stop, int count, long mergeTime) {
+        boolean merge = false;
+        if (counts[index] == 1) {
+            if (start - stops[index] < mergeTime) {
+                merge = true;
+            }
+        } else {
+            float dist = (stops[index] - starts[index]) / ((float) (counts[index] - 1));
+            if (start - stops[index] < dist + mergeTime) {
+                merge = true;
+            }
+        }
+        if (merge) {
+            stops[index] = Math.max(stops[index], stop);
+            counts[index] += count;
+            updateMaxStops(index);
+        }
+        return merge;
+    }
+
+    private void insert(int index, long start, long stop, int count) {
+        if (size == starts.length) {
+            int capacity = size + (size >> 1);
+            starts = Arrays.copyOf(starts, capacity);
+            stops = Arrays.copyOf(stops, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            maxStops = Arrays.copyOf(maxStops, capacity);
+        }
+        if (index < size) {
+            System.arraycopy(starts, index, starts, index + 1, size - index);
+            System.arraycopy(stops, index, stops, index + 1, size - index);
+            System.arraycopy(counts, index, counts, index + 1, size - index);
+        }
+        starts[index] = start;
+        stops[index] = stop;
+        counts[index] = count;
+        size++;
+        updateMaxStops(index);
+    }
+
+    private void updateMaxStops(int from) {
+        long max = (from == 0) ? Long.MIN_VALUE : maxStops[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, stops[i]);
+            maxStops[i] = max;
+        }
+    }
+
+    /**
+     * Visits all chunks that overlap with the given range, in order of start instant.
+     */
+    synchronized void forEachChunk(long from, long to, ChunkVisitor visitor) {
+        // Chunks may overlap, so start from the first chunk after which no chunk stops before the range
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxStops[mid] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < size && starts[i] <= to; i++) {
+            if (stops[i] >= from) {
+                visitor.visit(starts[i], stops[i], counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Visits the coverage of the given range at a level of detail that fits the given resolution. Chunks that are
+     * less than a pixel apart are visited as one chunk, so the number of visited chunks is bound by the number of
+     * pixels rather than by the number of chunks in the range.
+     *
+     * @param msPerPixel
+     *            resolution of the drawing
+     */
+    synchronized void forEachCoverage(long from, long to, double msPerPixel, ChunkVisitor visitor) {
+        if (msPerPixel < MIN_LEVEL_GAP) {
+            forEachChunk(from, to, visitor);
+            return;
+        }
+        int level = Math.min(MAX_LEVEL, 63 - Long.numberOfLeadingZeros((long) (msPerPixel / MIN_LEVEL_GAP)));
+        Coverage coverage = levels[level];
+        if (coverage == null) {
+            coverage = new Coverage(MIN_LEVEL_GAP << level);
+            levels[level] = coverage;
+        }
+        coverage.forEach(from, to, visitor);
+    }
+
+    /**
+     * Returns a number that changes whenever a chunk is added. This allows to cache drawings of this store.
+     */
+    synchronized int getVersion() {
+        return version;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * The chunks of the store, merged over all gaps shorter than a fixed duration.
+     */
+    private class Coverage {
+        long[] coverageStarts;
+        long[] coverageStops;
+        int[] coverageCounts;
+        int coverageSize;
+
+        Coverage(long gap) {
+            coverageStarts = new long[Math.min(size, 16)];
+            coverageStops = new long[coverageStarts.length];
+            coverageCounts = new int[coverageStarts.length];
+            for (int i = 0; i < size; i++) {
+                if (coverageSize > 0 && starts[i] - coverageStops[coverageSize - 1] < gap) {
+                    coverageStops[coverageSize - 1] = Math.max(stops[i], coverageStops[coverageSize - 1]);
+                    coverageCounts[coverageSize - 1] += counts[i];
+                } else {
+                    if (coverageSize == coverageStarts.length) {
+                        int capacity = coverageSize * 2;
+                        coverageStarts = Arrays.copyOf(coverageStarts, capacity);
+                        coverageStops = Arrays.copyOf(coverageStops, capacity);
+                        coverageCounts = Arrays.copyOf(coverageCounts, capacity);
+                    }
+                    coverageStarts[coverageSize] = starts[i];
+                    coverageStops[coverageSize] = stops[i];
+                    coverageCounts[coverageSize] = counts[i];
+                    coverageSize++;
+                }
+            }
+        }
+
+        void forEach(long from, long to, ChunkVisitor visitor) {
+            // Unlike the chunks, coverage chunks never overlap
+            int index = Arrays.binarySearch(coverageStarts, 0, coverageSize, from);
+            if (index < 0) {
+                index = Math.max(0, -index - 2);
+            }
+            for (int i = index; i < coverageSize && coverageStarts[i] <= to; i++) {
+                if (coverageStops[i] >= from) {
+                    visitor.visit(coverageStarts[i], coverageStops[i], coverageCounts[i]);
+                }
+            }
+        }
+    }
+}
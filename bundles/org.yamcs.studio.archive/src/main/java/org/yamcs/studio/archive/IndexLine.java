@@ -1,6 +1,12 @@
 package org.yamcs.studio.archive;
 
+import java.awt.Color;
 import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 
 import javax.swing.BorderFactory;
@@ -18,6 +24,12 @@ class IndexLine extends JPanel implements MouseInputListener {
     private static final long serialVersionUID = 1L;
     IndexLineSpec pkt;
 
+    // the label is repeated along the line, every LABEL_SPACING pixels
+    private static final int LABEL_SPACING = 600;
+    private String label;
+    private Font labelFont;
+    private Color labelColor;
+
     IndexLine(IndexBox tmBox, IndexLineSpec pkt) {
         super(null, false);
         this.indexBox = tmBox;
@@ -29,6 +41,38 @@ class IndexLine extends JPanel implements MouseInputListener {
         addMouseMotionListener(this);
     }
 
+    void setLabel(String label, Font labelFont, Color labelColor) {
+        this.label = label;
+        this.labelFont = labelFont;
+        this.labelColor = labelColor;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (label == null) {
+            return;
+        }
+        Insets in = getInsets();
+        g.setFont(labelFont);
+        g.setColor(labelColor);
+        FontMetrics fm = g.getFontMetrics();
+        int labelWidth = fm.stringWidth(label);
+        int panelw = getPreferredSize().width;
+
+        // Only paint the labels that intersect with the visible part
+        Rectangle clip = g.getClipBounds();
+        int x1 = 10;
+        if (clip != null && clip.x > x1 + labelWidth) {
+            x1 += ((clip.x - x1 - labelWidth) / LABEL_SPACING) * LABEL_SPACING;
+        }
+        int maxx = (clip != null) ? clip.x + clip.width : panelw;
+        do {
+            g.drawString(label, x1 + in.left, in.top + fm.getAscent());
+            x1 += LABEL_SPACING;
+        } while (x1 < panelw - labelWidth && x1 + in.left < maxx);
+    }
+
     private MouseEvent translateEvent(MouseEvent e) {
         // workaround for this bug
         //http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=7181403
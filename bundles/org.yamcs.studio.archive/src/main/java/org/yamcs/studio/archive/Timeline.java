@@ -1,31 +1,33 @@
 package org.yamcs.studio.archive;
 
-import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.util.TreeSet;
 
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
 
-import org.yamcs.studio.archive.ArchivePanel.IndexChunkSpec;
 import org.yamcs.studio.archive.IndexBox.IndexLineSpec;
+import org.yamcs.studio.archive.TimelineTileCache.TileKey;
 
+/**
+ * Draws the index chunks of one line. The timeline is drawn in tiles (see {@link TimelineTileCache}), and only the
+ * visible tiles are rendered, at a level of detail that matches the zoom.
+ */
 class Timeline extends JPanel {
     private static final long serialVersionUID = 1L;
     private static final Color BLUEISH = new Color(135, 206, 250);
     private final IndexBox tmBox;
-    TreeSet<IndexChunkSpec> tmspec;
+    IndexChunkStore tmspec;
     IndexLineSpec pkt;
     ZoomSpec zoom;
     int leftDelta; //we have to move everything to the left with this amount (because this component is in a bordered parent)
-    BufferedImage image = null;
 
-    Timeline(IndexBox tmBox, IndexLineSpec pkt, TreeSet<IndexChunkSpec> tmspec, ZoomSpec zoom, int leftDelta) {
+    Timeline(IndexBox tmBox, IndexLineSpec pkt, IndexChunkStore tmspec, ZoomSpec zoom, int leftDelta) {
         super();
         setBorder(BorderFactory.createEmptyBorder());
         this.tmBox = tmBox;
@@ -45,24 +47,51 @@ class Timeline extends JPanel {
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (image == null) {
-            image = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_ARGB);
-            Graphics2D big = image.createGraphics();
-            big.setComposite(AlphaComposite.getInstance(AlphaComposite.CLEAR));
-            big.fillRect(0, 0, getWidth(), getHeight());
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
 
-            big.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
-            //big.clearRect(0, 0, getWidth(),getHeight());
-            big.setColor(BLUEISH);
-            for (IndexChunkSpec pkt : tmspec) {
-                int x1 = zoom.convertInstantToPixel(pkt.startInstant);
-                int x2 = zoom.convertInstantToPixel(pkt.stopInstant);
-                int width = (x2 - x1 <= 1) ? 1 : x2 - x1 - 1;
-                big.fillRect(x1 - leftDelta, 0, width, getHeight());
+        // Only draw the tiles that intersect with the visible part
+        int version = tmspec.getVersion();
+        int firstTile = Math.floorDiv(clip.x + leftDelta, TimelineTileCache.TILE_WIDTH);
+        int lastTile = Math.floorDiv(clip.x + clip.width - 1 + leftDelta, TimelineTileCache.TILE_WIDTH);
+        for (int i = firstTile; i <= lastTile; i++) {
+            TileKey key = new TileKey(tmspec, version, zoom, i, getHeight());
+            BufferedImage tile = TimelineTileCache.get(key);
+            if (tile == null) {
+                tile = renderTile(i);
+                TimelineTileCache.put(key, tile);
+            }
+            if (tile != TimelineTileCache.EMPTY_TILE) {
+                g.drawImage(tile, i * TimelineTileCache.TILE_WIDTH - leftDelta, 0, this);
             }
-            big.dispose();
         }
-        g.drawImage(image, 0, 0, this);
     }
 
+    private BufferedImage renderTile(int tileIndex) {
+        int tileX = tileIndex * TimelineTileCache.TILE_WIDTH;
+        // One pixel margin for chunks that are rounded into this tile
+        long from = zoom.convertPixelToInstant(tileX - 1);
+        long to = zoom.convertPixelToInstant(tileX + TimelineTileCache.TILE_WIDTH + 1);
+
+        BufferedImage[] tile = new BufferedImage[1];
+        Graphics2D[] big = new Graphics2D[1];
+        tmspec.forEachCoverage(from, to, zoom.pixelRatio, (start, stop, count) -> {
+            if (big[0] == null) {
+                tile[0] = new BufferedImage(TimelineTileCache.TILE_WIDTH, getHeight(), BufferedImage.TYPE_INT_ARGB);
+                big[0] = tile[0].createGraphics();
+                big[0].setColor(BLUEISH);
+            }
+            int x1 = zoom.convertInstantToPixel(start);
+            int x2 = zoom.convertInstantToPixel(stop);
+            int width = (x2 - x1 <= 1) ? 1 : x2 - x1 - 1;
+            big[0].fillRect(x1 - tileX, 0, width, getHeight());
+        });
+        if (big[0] == null) {
+            return TimelineTileCache.EMPTY_TILE;
+        }
+        big[0].dispose();
+        return tile[0];
+    }
 }
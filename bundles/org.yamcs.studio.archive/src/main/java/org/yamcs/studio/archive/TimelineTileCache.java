@@ -0,0 +1,100 @@
+package org.yamcs.studio.archive;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Cache of rendered timeline tiles, shared by all index boxes. Tiles are fixed-width slices of a timeline at a given
+ * zoom, so tiles that were rendered before can be drawn again when scrolling back or when returning to a previous
+ * zoom level.
+ * <p>
+ * Tiles are keyed by the version of their index chunk store, so tiles of changed stores are no longer used and
+ * eventually evicted.
+ */
+final class TimelineTileCache {
+
+    static final int TILE_WIDTH = 256;
+
+    /**
+     * Maximum number of cached tiles. The least recently used tile is evicted first.
+     */
+    private static final int MAX_TILES = 1024;
+
+    // Marks a tile without any chunks, which does not need an image
+    static final BufferedImage EMPTY_TILE = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private static final Map<TileKey, BufferedImage> cache = new LinkedHashMap<TileKey, BufferedImage>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<TileKey, BufferedImage> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+
+    private TimelineTileCache() {
+    }
+
+    static BufferedImage get(TileKey key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    static void put(TileKey key, BufferedImage tile) {
+        synchronized (cache) {
+            cache.put(key, tile);
+        }
+    }
+
+    /**
+     * Drops all tiles, along with the index chunk stores that they are keyed by.
+     */
+    static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    static final class TileKey {
+        final IndexChunkStore store;
+        final int version;
+        final long startInstant;
+        final double pixelRatio;
+        final int tileIndex;
+        final int height;
+
+        TileKey(IndexChunkStore store, int version, ZoomSpec zoom, int tileIndex, int height) {
+            this.store = store;
+            this.version = version;
+            this.startInstant = zoom.startInstant;
+            this.pixelRatio = zoom.pixelRatio;
+            this.tileIndex = tileIndex;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey) obj;
+            return store == other.store && version == other.version && startInstant == other.startInstant
+                    && Double.compare(pixelRatio, other.pixelRatio) == 0 && tileIndex == other.tileIndex
+                    && height == other.height;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(store);
+            result = 31 * result + version;
+            result = 31 * result + Long.hashCode(startInstant);
+            result = 31 * result + Double.hashCode(pixelRatio);
+            result = 31 * result + tileIndex;
+            return 31 * result + height;
+        }
+    }
+}
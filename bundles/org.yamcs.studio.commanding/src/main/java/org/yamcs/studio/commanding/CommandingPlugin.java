@@ -39,4 +39,8 @@ public class CommandingPlugin extends AbstractUIPlugin {
         }
         return section;
     }
+
+    public int getMaximumCommandHistoryCount() {
+        return getPreferenceStore().getInt(PreferencePage.PREF_CMDHIST_MAXCOUNT);
+    }
 }
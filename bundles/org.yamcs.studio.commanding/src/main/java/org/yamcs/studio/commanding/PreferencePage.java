@@ -0,0 +1,54 @@
+package org.yamcs.studio.commanding;
+
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.preference.IntegerFieldEditor;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchPreferencePage;
+
+public class PreferencePage extends FieldEditorPreferencePage implements IWorkbenchPreferencePage {
+
+    public static final String PREF_CMDHIST_MAXCOUNT = "cmdhist.maxCount";
+
+    private IntegerFieldEditor maximumCommandCount;
+
+    public PreferencePage() {
+        super(GRID);
+        setPreferenceStore(CommandingPlugin.getDefault().getPreferenceStore());
+    }
+
+    @Override
+    public void init(IWorkbench workbench) {
+    }
+
+    @Override
+    protected void createFieldEditors() {
+        Composite parent = getFieldEditorParent();
+
+        maximumCommandCount = new IntegerFieldEditor(PREF_CMDHIST_MAXCOUNT,
+                "Maximum number of commands kept in the history", parent);
+        maximumCommandCount.setValidRange(1, Integer.MAX_VALUE);
+        addField(maximumCommandCount);
+    }
+
+    @Override
+    public boolean performOk() {
+        IPreferenceStore store = CommandingPlugin.getDefault().getPreferenceStore();
+
+        boolean propertiesChanged = maximumCommandCount.getIntValue() != store.getInt(PREF_CMDHIST_MAXCOUNT);
+
+        // Save to store
+        boolean ret = super.performOk();
+
+        if (propertiesChanged) {
+            MessageDialog dialog = new MessageDialog(getShell(), "Apply changes", null,
+                    "For Command History preferences to take effect, close the Command History view and re-open it (menu Window->Show View->Command History)",
+                    MessageDialog.INFORMATION, new String[] { "OK" }, 0);
+            dialog.open();
+        }
+
+        return ret;
+    }
+}
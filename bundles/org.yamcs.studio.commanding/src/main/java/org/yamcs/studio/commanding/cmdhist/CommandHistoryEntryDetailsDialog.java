@@ -3,8 +3,6 @@ package org.yamcs.studio.commanding.cmdhist;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.dialogs.TrayDialog;
-import org.eclipse.jface.viewers.IStructuredSelection;
-import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.SashForm;
 import org.eclipse.swt.layout.FillLayout;
@@ -86,16 +84,14 @@ public class CommandHistoryEntryDetailsDialog extends TrayDialog {
     }
 
     private void backPressed() {
-        IStructuredSelection sel = new StructuredSelection(previousRec);
-        commandHistoryView.getTableViewer().setSelection(sel, true);
+        commandHistoryView.selectAndReveal(previousRec);
         updateRecord(previousRec);
         updateProperties();
         updateButtonState();
     }
 
     private void nextPressed() {
-        IStructuredSelection sel = new StructuredSelection(nextRec);
-        commandHistoryView.getTableViewer().setSelection(sel, true);
+        commandHistoryView.selectAndReveal(nextRec);
         updateRecord(nextRec);
         updateProperties();
         updateButtonState();
@@ -1,14 +1,17 @@
 package org.yamcs.studio.commanding.cmdhist;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import org.eclipse.jface.viewers.IStructuredContentProvider;
-import org.eclipse.jface.viewers.IStructuredSelection;
-import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.custom.BusyIndicator;
@@ -18,7 +21,16 @@ import org.yamcs.protobuf.Commanding.CommandId;
 import org.yamcs.studio.commanding.PTVInfo;
 import org.yamcs.studio.commanding.cmdhist.CommandHistoryRecord.CommandState;
 
-public class CommandHistoryRecordContentProvider implements IStructuredContentProvider {
+/**
+ * Lazy content provider for the (virtual) command history table.
+ * <p>
+ * Records are kept in order of arrival, up to a maximum number. Once full, the oldest records are evicted. The rows of
+ * the table are a separate list of the same records, kept in sort order.
+ * <p>
+ * Entries are best passed in batches: each record is then updated with all of its attributes of the batch, before
+ * the table is updated once for the whole batch.
+ */
+public class CommandHistoryRecordContentProvider implements ILazyContentProvider {
 
     public static final String GREEN = "icons/obj16/ok.png";
     public static final String RED = "icons/obj16/nok.png";
@@ -50,12 +62,22 @@ public class CommandHistoryRecordContentProvider implements IStructuredContentPr
     public static final String ATTR_USERNAME = "username";
     public static final String ATTR_COMMENT = "comment";
 
+    // All records, oldest first
     private Map<CommandId, CommandHistoryRecord> recordsByCommandId = new LinkedHashMap<>();
+    private int maxRecords;
+
+    // Records in sort order. Index in this list is the table row.
+    private List<CommandHistoryRecord> rows = new ArrayList<>();
+
     private TableViewer tableViewer;
+    private CommandHistorySorter comparator;
     private boolean scrollLock;
 
-    public CommandHistoryRecordContentProvider(TableViewer tableViewer) {
+    public CommandHistoryRecordContentProvider(TableViewer tableViewer, CommandHistorySorter comparator,
+            int maxRecords) {
         this.tableViewer = tableViewer;
+        this.comparator = comparator;
+        this.maxRecords = Math.max(1, maxRecords);
     }
 
     @Override
@@ -68,8 +90,10 @@ public class CommandHistoryRecordContentProvider implements IStructuredContentPr
     }
 
     @Override
-    public Object[] getElements(Object inputElement) {
-        return recordsByCommandId.values().toArray();
+    public void updateElement(int index) {
+        if (index < rows.size()) {
+            tableViewer.replace(rows.get(index), index);
+        }
     }
 
     public static String toHumanReadableName(CommandHistoryAttribute attribute) {
@@ -85,24 +109,63 @@ public class CommandHistoryRecordContentProvider implements IStructuredContentPr
         }
 
         Collections.reverse(entries);
-        for (CommandHistoryEntry entry : entries) {
-            processCommandHistoryEntry(entry);
-        }
+        processCommandHistoryEntries(entries);
     }
 
     public void processCommandHistoryEntry(CommandHistoryEntry entry) {
-        CommandId commandId = entry.getCommandId();
-        CommandHistoryRecord rec;
-        boolean create;
-        if (recordsByCommandId.containsKey(commandId)) {
-            rec = recordsByCommandId.get(commandId);
-            create = false;
+        processCommandHistoryEntries(Collections.singletonList(entry));
+    }
+
+    /**
+     * Applies a batch of entries, in order of arrival, and updates the table once.
+     */
+    public void processCommandHistoryEntries(Collection<CommandHistoryEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // Selection of a virtual table is by index, so it is kept by record instead
+        List<CommandHistoryRecord> selected = getSelectedRecords();
+
+        List<CommandHistoryRecord> added = new ArrayList<>();
+        CommandHistoryRecord last = null;
+        for (CommandHistoryEntry entry : entries) {
+            CommandId commandId = entry.getCommandId();
+            CommandHistoryRecord rec = recordsByCommandId.get(commandId);
+            if (rec == null) {
+                rec = new CommandHistoryRecord(commandId);
+                recordsByCommandId.put(commandId, rec);
+                added.add(rec);
+            }
+            applyAttributes(rec, entry);
+            last = rec;
+        }
+
+        Set<CommandHistoryRecord> evicted = Collections.newSetFromMap(new IdentityHashMap<>());
+        Iterator<CommandHistoryRecord> it = recordsByCommandId.values().iterator();
+        while (recordsByCommandId.size() > maxRecords) {
+            evicted.add(it.next());
+            it.remove();
+        }
+        if (!evicted.isEmpty()) {
+            // Records of the same batch may have been evicted already, those never reached the rows.
+            added.removeIf(evicted::contains);
+            rows.removeIf(evicted::contains);
+        }
+
+        // Updates may move records as well, but the rows are still mostly in order, so this is cheap.
+        rows.addAll(added);
+        sortRows();
+        updateTable();
+
+        if (!scrollLock && last != null && !evicted.contains(last)) {
+            selectAndReveal(last);
         } else {
-            rec = new CommandHistoryRecord(commandId);
-            recordsByCommandId.put(commandId, rec);
-            create = true;
+            restoreSelection(selected);
         }
+    }
 
+    private void applyAttributes(CommandHistoryRecord rec, CommandHistoryEntry entry) {
         // Autoprocess attributes for additional columns
         for (CommandHistoryAttribute attr : entry.getAttrList()) {
             String shortName = toHumanReadableName(attr);
@@ -160,21 +223,91 @@ public class CommandHistoryRecordContentProvider implements IStructuredContentPr
                 rec.addCellValue(shortName, attr.getValue());
             }
         }
+    }
 
-        // All done, make changes visible
-        if (create) {
-            tableViewer.add(rec);
-            maybeSelectAndReveal(rec);
-        } else {
-            tableViewer.update(rec, null); // Null, means all properties
-            maybeSelectAndReveal(rec);
+    /**
+     * Re-applies the sort order to all records. To be called when it changes.
+     */
+    public void refresh() {
+        List<CommandHistoryRecord> selected = getSelectedRecords();
+        sortRows();
+        updateTable();
+        restoreSelection(selected);
+    }
+
+    private void sortRows() {
+        rows.sort((r1, r2) -> comparator.compare(tableViewer, r1, r2));
+    }
+
+    private void updateTable() {
+        tableViewer.setItemCount(rows.size());
+        if (!rows.isEmpty()) {
+            // Only rows that are visible are requested again
+            tableViewer.getTable().clear(0, rows.size() - 1);
+        }
+    }
+
+    private List<CommandHistoryRecord> getSelectedRecords() {
+        int[] indices = tableViewer.getTable().getSelectionIndices();
+        List<CommandHistoryRecord> selected = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            if (index < rows.size()) {
+                selected.add(rows.get(index));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Selects the rows of the given records again, after they may have moved. Evicted records are no longer
+     * selected.
+     */
+    private void restoreSelection(List<CommandHistoryRecord> selected) {
+        if (selected.isEmpty()) {
+            return;
+        }
+        int[] indices = new int[selected.size()];
+        int n = 0;
+        for (CommandHistoryRecord rec : selected) {
+            int index = indexOf(rec);
+            if (index >= 0) {
+                indices[n++] = index;
+            }
+        }
+        tableViewer.getTable().setSelection(Arrays.copyOf(indices, n));
+    }
+
+    /**
+     * Returns the row index of the given record, or -1 if it is not currently shown.
+     */
+    public int indexOf(CommandHistoryRecord rec) {
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            if (rows.get(i) == rec) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public CommandHistoryRecord getElementAt(int index) {
+        return (index >= 0 && index < rows.size()) ? rows.get(index) : null;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    public void selectAndReveal(CommandHistoryRecord rec) {
+        int index = indexOf(rec);
+        if (index >= 0) {
+            tableViewer.getTable().setSelection(index);
+            tableViewer.getTable().showSelection();
         }
     }
 
     public void maybeSelectAndReveal(CommandHistoryRecord rec) {
         if (!scrollLock) {
-            IStructuredSelection sel = new StructuredSelection(rec);
-            tableViewer.setSelection(sel, true);
+            selectAndReveal(rec);
         }
     }
 
@@ -193,13 +326,11 @@ public class CommandHistoryRecordContentProvider implements IStructuredContentPr
     }
 
     public void clearAll() {
-        // TODO not sure if this is the recommended way to delete all. Need to verify
         BusyIndicator.showWhile(tableViewer.getTable().getDisplay(), () -> {
-            tableViewer.getTable().setRedraw(false);
-            Collection<CommandHistoryRecord> recs = recordsByCommandId.values();
-            tableViewer.remove(recs.toArray());
             recordsByCommandId.clear();
-            tableViewer.getTable().setRedraw(true);
+            rows.clear();
+            tableViewer.getTable().deselectAll();
+            tableViewer.setItemCount(0);
         });
     }
 }
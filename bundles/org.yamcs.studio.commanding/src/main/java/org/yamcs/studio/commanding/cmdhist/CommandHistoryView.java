@@ -2,7 +2,12 @@ package org.yamcs.studio.commanding.cmdhist;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,6 +41,7 @@ import org.eclipse.ui.IActionBars;
 import org.eclipse.ui.part.ViewPart;
 import org.yamcs.protobuf.Commanding.CommandHistoryAttribute;
 import org.yamcs.protobuf.Commanding.CommandHistoryEntry;
+import org.yamcs.protobuf.Commanding.CommandId;
 import org.yamcs.protobuf.ListCommandsResponse;
 import org.yamcs.studio.commanding.CommandingPlugin;
 import org.yamcs.studio.core.YamcsConnectionListener;
@@ -120,6 +126,10 @@ public class CommandHistoryView extends ViewPart implements YamcsConnectionListe
     private CommandHistoryListener commandHistoryListener;
     private CommandHistoryRecordContentProvider tableContentProvider;
 
+    // Realtime entries not yet shown. Drained in one go on the UI thread.
+    private Queue<CommandHistoryEntry> pendingEntries = new ConcurrentLinkedQueue<>();
+    private AtomicBoolean drainScheduled = new AtomicBoolean();
+
     private ColumnData columnData;
     private List<String> dynamicColumns = new ArrayList<>();
 
@@ -141,19 +151,20 @@ public class CommandHistoryView extends ViewPart implements YamcsConnectionListe
 
         createActions(parent.getShell());
 
-        tableViewer = new TableViewer(parent, SWT.H_SCROLL | SWT.V_SCROLL | SWT.FULL_SELECTION | SWT.MULTI);
+        tableViewer = new TableViewer(parent,
+                SWT.H_SCROLL | SWT.V_SCROLL | SWT.FULL_SELECTION | SWT.MULTI | SWT.VIRTUAL);
+        tableViewer.setUseHashlookup(true);
+        tableViewerComparator = new CommandHistorySorter();
 
         columnData = createDefaultColumnData();
         restoreColumnState();
         createColumns();
 
-        tableContentProvider = new CommandHistoryRecordContentProvider(tableViewer);
+        tableContentProvider = new CommandHistoryRecordContentProvider(tableViewer, tableViewerComparator,
+                CommandingPlugin.getDefault().getMaximumCommandHistoryCount());
         tableViewer.setContentProvider(tableContentProvider);
         tableViewer.setInput(tableContentProvider); // ! otherwise refresh() deletes everything...
 
-        tableViewerComparator = new CommandHistorySorter();
-        tableViewer.setComparator(tableViewerComparator);
-
         getViewSite().setSelectionProvider(tableViewer);
 
         // Register context menu. Commands are added in plugin.xml
@@ -173,7 +184,10 @@ public class CommandHistoryView extends ViewPart implements YamcsConnectionListe
         ManagementCatalogue.getInstance().addInstanceListener(this);
 
         commandHistoryListener = cmdhistEntry -> {
-            Display.getDefault().asyncExec(() -> processCommandHistoryEntry(cmdhistEntry, true));
+            pendingEntries.offer(cmdhistEntry);
+            if (drainScheduled.compareAndSet(false, true)) {
+                Display.getDefault().asyncExec(() -> drainPendingEntries());
+            }
         };
         CommandingCatalogue.getInstance().addCommandHistoryListener(commandHistoryListener);
     }
@@ -224,6 +238,35 @@ public class CommandHistoryView extends ViewPart implements YamcsConnectionListe
         tableContentProvider.clearAll();
     }
 
+    /**
+     * Shows all realtime entries that arrived since the last drain. Entries of the same command are merged into one,
+     * so that each record and the table are only updated once, no matter how many attribute updates came in.
+     */
+    private void drainPendingEntries() {
+        drainScheduled.set(false);
+        Map<CommandId, CommandHistoryEntry.Builder> merged = new LinkedHashMap<>();
+        CommandHistoryEntry entry;
+        while ((entry = pendingEntries.poll()) != null) {
+            CommandHistoryEntry.Builder builder = merged.get(entry.getCommandId());
+            if (builder == null) {
+                merged.put(entry.getCommandId(), entry.toBuilder());
+            } else {
+                builder.addAllAttr(entry.getAttrList());
+            }
+        }
+        if (merged.isEmpty() || tableViewer.getTable().isDisposed()) {
+            return;
+        }
+
+        List<CommandHistoryEntry> entries = new ArrayList<>(merged.size());
+        for (CommandHistoryEntry.Builder builder : merged.values()) {
+            CommandHistoryEntry mergedEntry = builder.build();
+            processCommandHistoryEntry(mergedEntry, false);
+            entries.add(mergedEntry);
+        }
+        tableContentProvider.processCommandHistoryEntries(entries);
+    }
+
     public void enableScrollLock(boolean enabled) {
         tableContentProvider.enableScrollLock(enabled);
     }
@@ -237,7 +280,7 @@ public class CommandHistoryView extends ViewPart implements YamcsConnectionListe
             int[] indices = tableViewer.getTable().getSelectionIndices();
             if (indices[0] > 0) {
                 int prevIndex = indices[0] - 1;
-                return (CommandHistoryRecord) tableViewer.getElementAt(prevIndex);
+                return tableContentProvider.getElementAt(prevIndex);
             }
         }
         return null;
@@ -246,14 +289,18 @@ public class CommandHistoryView extends ViewPart implements YamcsConnectionListe
     public CommandHistoryRecord getNextRecord(CommandHistoryRecord rec) {
         if (tableViewer.getTable().getSelectionCount() > 0) {
             int[] indices = tableViewer.getTable().getSelectionIndices();
-            if (indices[0] < tableViewer.getTable().getItemCount() - 1) {
+            if (indices[0] < tableContentProvider.getRowCount() - 1) {
                 int nextIndex = indices[0] + 1;
-                return (CommandHistoryRecord) tableViewer.getElementAt(nextIndex);
+                return tableContentProvider.getElementAt(nextIndex);
             }
         }
         return null;
     }
 
+    public void selectAndReveal(CommandHistoryRecord rec) {
+        tableContentProvider.selectAndReveal(rec);
+    }
+
     private void createActions(Shell shell) {
         IActionBars bars = getViewSite().getActionBars();
         IMenuManager mgr = bars.getMenuManager();
@@ -778,7 +825,7 @@ public class CommandHistoryView extends ViewPart implements YamcsConnectionListe
                 int dir = tableViewerComparator.getDirection();
                 tableViewer.getTable().setSortDirection(dir);
                 tableViewer.getTable().setSortColumn(column);
-                tableViewer.refresh();
+                tableContentProvider.refresh();
             }
         };
     }
@@ -37,4 +37,8 @@ public class XtceSubSystemNode implements XtceTreeNode {
     public void addChild(XtceTreeNode child) {
         children.put(child.getName(), child);
     }
+
+    public XtceTreeNode removeChild(String name) {
+        return children.remove(name);
+    }
 }
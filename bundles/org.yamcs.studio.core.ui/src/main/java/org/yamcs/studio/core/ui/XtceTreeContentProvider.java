@@ -40,31 +40,91 @@ public abstract class XtceTreeContentProvider<T> implements ITreeContentProvider
 
     /**
      * Fits the XTCE element in the current model
+     *
+     * @return the topmost node that was added to the model. This is the node of the element itself, unless subsystem
+     *         nodes had to be created for it.
      */
     @SuppressWarnings("unchecked")
-    public void addElement(String qualifiedName, T data) {
+    public XtceTreeNode<T> addElement(String qualifiedName, T data) {
         String[] parts = qualifiedName.split("\\/");
 
         boolean isDirectLeaf = parts.length == 1;
         if (isDirectLeaf) {
             String name = parts[1];
-            roots.put(name, createXtceTreeNode(null, name, data));
+            XtceTreeNode<T> node = createXtceTreeNode(null, name, data);
+            roots.put(name, node);
+            return node;
         } else {
+            boolean newRoot = !roots.containsKey(parts[1]);
             XtceSubSystemNode root = findOrCreateRootSpaceSystem(parts[1]);
+            XtceTreeNode<T> added = newRoot ? root : null;
             XtceSubSystemNode parent = root;
             for (int i = 2; i < parts.length - 1; i++) {
                 XtceTreeNode<T> node = parent.getChild(parts[i]);
                 if (node == null) {
                     node = new XtceSubSystemNode(parent, parts[i]);
                     parent.addChild(node);
+                    if (added == null) {
+                        added = node;
+                    }
                 }
                 parent = (XtceSubSystemNode) node;
             }
             String name = parts[parts.length - 1];
-            parent.addChild(createXtceTreeNode(parent, name, data));
+            XtceTreeNode<T> node = createXtceTreeNode(parent, name, data);
+            parent.addChild(node);
+            return (added != null) ? added : node;
         }
     }
 
+    /**
+     * Returns the node of the XTCE element with the given name, or null if it is not in the model.
+     */
+    @SuppressWarnings("unchecked")
+    public XtceTreeNode<T> getElement(String qualifiedName) {
+        String[] parts = qualifiedName.split("\\/");
+        if (parts.length < 2) {
+            return null;
+        }
+        // Same layout as in addElement
+        XtceTreeNode<T> node = roots.get(parts[1]);
+        for (int i = 2; i < parts.length; i++) {
+            if (!(node instanceof XtceSubSystemNode)) {
+                return null;
+            }
+            node = ((XtceSubSystemNode) node).getChild(parts[i]);
+        }
+        if (parts.length == 2 && node instanceof XtceSubSystemNode) {
+            node = ((XtceSubSystemNode) node).getChild(parts[1]);
+        }
+        return node;
+    }
+
+    /**
+     * Removes the XTCE element from the model, along with any subsystem nodes that are left empty.
+     *
+     * @return the topmost node that was removed from the model, or null if the element was not in the model.
+     */
+    @SuppressWarnings("unchecked")
+    public XtceTreeNode<T> removeElement(String qualifiedName) {
+        XtceTreeNode<T> node = getElement(qualifiedName);
+        if (node == null || node instanceof XtceSubSystemNode) {
+            return null;
+        }
+        XtceTreeNode<T> removed = node;
+        XtceSubSystemNode parent = (XtceSubSystemNode) node.getParent();
+        while (parent != null) {
+            parent.removeChild(removed.getName());
+            if (!parent.getChildren().isEmpty()) {
+                return removed;
+            }
+            removed = parent;
+            parent = (XtceSubSystemNode) parent.getParent();
+        }
+        roots.remove(removed.getName());
+        return removed;
+    }
+
     @SuppressWarnings("unchecked")
     private XtceSubSystemNode findOrCreateRootSpaceSystem(String name) {
         XtceTreeNode<T> root = roots.get(name);
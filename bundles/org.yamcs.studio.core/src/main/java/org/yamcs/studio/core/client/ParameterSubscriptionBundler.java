@@ -1,15 +1,24 @@
 package org.yamcs.studio.core.client;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.yamcs.client.WebSocketRequest;
 import org.yamcs.protobuf.ParameterSubscriptionResponse;
 import org.yamcs.protobuf.WebSocketServerMessage.WebSocketReplyData;
 import org.yamcs.protobuf.Yamcs.NamedObjectId;
+import org.yamcs.protobuf.Yamcs.NamedObjectList;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 
@@ -18,56 +27,143 @@ import com.google.protobuf.InvalidProtocolBufferException;
  * Yamcs Studio individual parameter widget generate distinct sub/unsub events which would otherwise cause request
  * bursts.
  * <p>
- * Each execution empties the queue. By timing the interval between executions you can control the acceptable delay
- * before the queue is emptied.
+ * Each execution empties the queue. Within the queued requests, only the last operation for each id is kept, so an
+ * unsubscribe directly followed by a subscribe (e.g. when reopening a display) results in a single subscribe. What
+ * remains is sent as at most one deduplicated request per operation.
+ * <p>
+ * The interval between executions adapts to the load: it grows while requests keep coming in (so that bursts get
+ * merged into fewer messages), and shrinks back when things are quiet (so that single requests are sent quickly).
  */
 public class ParameterSubscriptionBundler implements Runnable {
 
     private static final Logger log = Logger.getLogger(ParameterSubscriptionBundler.class.getName());
 
+    private static final long MIN_INTERVAL = 50; // ms
+    private static final long MAX_INTERVAL = 400; // ms
+
+    // Number of requests within one interval above which the interval grows
+    private static final int BURST_THRESHOLD = 10;
+
     private YamcsStudioClient yamcsClient;
+    private ScheduledExecutorService executor;
+    private long interval = MIN_INTERVAL;
 
     // Order all subscribe/unsubscribe events
     private Queue<ParameterWebSocketRequest> pendingMessages = new ConcurrentLinkedQueue<>();
 
-    public ParameterSubscriptionBundler(YamcsStudioClient yamcsClient) {
+    private LongAdder requestsIn = new LongAdder();
+    private LongAdder idsIn = new LongAdder();
+    private LongAdder requestsOut = new LongAdder();
+    private LongAdder idsOut = new LongAdder();
+
+    public ParameterSubscriptionBundler(YamcsStudioClient yamcsClient, ScheduledExecutorService executor) {
         this.yamcsClient = yamcsClient;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts periodic execution on the executor. Execution stops when the executor is shut down.
+     */
+    public void start() {
+        executor.schedule(this, interval, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void run() {
-        if (!yamcsClient.isConnected()) {
-            return;
+        try {
+            if (yamcsClient.isConnected()) {
+                int count = flush();
+                if (count > BURST_THRESHOLD) {
+                    interval = Math.min(MAX_INTERVAL, interval * 2);
+                } else if (count <= 1) {
+                    interval = Math.max(MIN_INTERVAL, interval / 2);
+                }
+            }
+        } finally {
+            if (!executor.isShutdown()) {
+                try {
+                    executor.schedule(this, interval, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends all pending requests, and returns how many requests were merged.
+     */
+    private int flush() {
+        List<ParameterWebSocketRequest> requests = new ArrayList<>();
+        ParameterWebSocketRequest request;
+        while ((request = pendingMessages.poll()) != null) {
+            requests.add(request);
+        }
+        int count = requests.size();
+        Map<String, List<NamedObjectId>> idsByOperation = merge(requests);
+        if (idsByOperation.isEmpty()) {
+            return count;
         }
 
-        ParameterWebSocketRequest a;
-        while ((a = pendingMessages.poll()) != null) {
+        int idCount = 0;
+        for (Entry<String, List<NamedObjectId>> entry : idsByOperation.entrySet()) {
+            NamedObjectList idList = NamedObjectList.newBuilder().addAllList(entry.getValue()).build();
+            send(new ParameterWebSocketRequest(entry.getKey(), idList));
+            requestsOut.increment();
+            idsOut.add(entry.getValue().size());
+            idCount += entry.getValue().size();
+        }
 
-            while (pendingMessages.peek() != null && isMergeable(a, pendingMessages.peek())) {
-                ParameterWebSocketRequest b = pendingMessages.poll();
-                a.merge(b);
+        if (log.isLoggable(Level.FINE)) {
+            log.fine(String.format("Sent %d ids in %d requests (merged %d requests, %s)",
+                    idCount, idsByOperation.size(), count, this));
+        }
+        return count;
+    }
+
+    /**
+     * Merges requests in queue order. Only the last operation for each id is kept, and ids are grouped by that
+     * operation in the order of their last occurrence.
+     */
+    static Map<String, List<NamedObjectId>> merge(List<ParameterWebSocketRequest> requests) {
+        // Last operation wins
+        Map<NamedObjectId, String> operationsById = new LinkedHashMap<>();
+        for (ParameterWebSocketRequest request : requests) {
+            for (NamedObjectId id : request.getIds()) {
+                operationsById.remove(id); // Keep in order of last operation
+                operationsById.put(id, request.getOperation());
             }
+        }
+
+        Map<String, List<NamedObjectId>> idsByOperation = new LinkedHashMap<>();
+        for (Entry<NamedObjectId, String> entry : operationsById.entrySet()) {
+            idsByOperation.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+        }
+        return idsByOperation;
+    }
 
-            CompletableFuture<WebSocketReplyData> future = yamcsClient.getWebSocketClient().sendRequest(a);
-            future.whenComplete((reply, exc) -> {
-                if (exc != null) {
-                    log.log(Level.SEVERE, "Server exception while subscribing to parameters", exc);
-                } else {
-                    try {
-                        ParameterSubscriptionResponse response = ParameterSubscriptionResponse
-                                .parseFrom(reply.getData());
-                        for (NamedObjectId id : response.getInvalidList()) {
-                            log.fine("No parameter for id " + id);
-                        }
-                    } catch (InvalidProtocolBufferException e) {
-                        log.log(Level.WARNING, "Failed to decode parameter subscription response", e);
+    private void send(ParameterWebSocketRequest request) {
+        CompletableFuture<WebSocketReplyData> future = yamcsClient.getWebSocketClient().sendRequest(request);
+        future.whenComplete((reply, exc) -> {
+            if (exc != null) {
+                log.log(Level.SEVERE, "Server exception while subscribing to parameters", exc);
+            } else {
+                try {
+                    ParameterSubscriptionResponse response = ParameterSubscriptionResponse
+                            .parseFrom(reply.getData());
+                    for (NamedObjectId id : response.getInvalidList()) {
+                        log.fine("No parameter for id " + id);
                     }
+                } catch (InvalidProtocolBufferException e) {
+                    log.log(Level.WARNING, "Failed to decode parameter subscription response", e);
                 }
-            });
-        }
+            }
+        });
     }
 
     public void queue(ParameterWebSocketRequest request) {
+        requestsIn.increment();
+        idsIn.add(request.getIds().size());
         pendingMessages.offer(request);
     }
 
@@ -75,7 +171,37 @@ public class ParameterSubscriptionBundler implements Runnable {
         pendingMessages.clear();
     }
 
-    private boolean isMergeable(WebSocketRequest a, WebSocketRequest b) {
-        return a.getOperation().equals(b.getOperation());
+    /**
+     * @return number of requests that were queued since this bundler was created.
+     */
+    public long getRequestsIn() {
+        return requestsIn.sum();
+    }
+
+    /**
+     * @return number of ids over all requests that were queued since this bundler was created.
+     */
+    public long getIdsIn() {
+        return idsIn.sum();
+    }
+
+    /**
+     * @return number of requests that were sent to the server since this bundler was created.
+     */
+    public long getRequestsOut() {
+        return requestsOut.sum();
+    }
+
+    /**
+     * @return number of ids over all requests that were sent to the server since this bundler was created.
+     */
+    public long getIdsOut() {
+        return idsOut.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("in=%d requests/%d ids, out=%d requests/%d ids, interval=%dms",
+                getRequestsIn(), getIdsIn(), getRequestsOut(), getIdsOut(), interval);
     }
 }
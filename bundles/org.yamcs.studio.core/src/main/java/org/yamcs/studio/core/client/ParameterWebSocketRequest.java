@@ -11,8 +11,9 @@ import org.yamcs.protobuf.Yamcs.NamedObjectList;
 import com.google.protobuf.Message;
 
 /**
- * Wraps a yamcs web socket request and provides a mechanism to combine multiple requests together. The purpose of this
- * is to act against request bursts that could occur when opening for example a display with many parameters on it.
+ * Wraps a yamcs web socket request for (un)subscribing to a set of parameters. Requests are combined by
+ * {@link ParameterSubscriptionBundler} to act against request bursts that could occur when opening for example a
+ * display with many parameters on it.
  */
 public class ParameterWebSocketRequest extends WebSocketRequest {
 
@@ -42,7 +43,7 @@ public class ParameterWebSocketRequest extends WebSocketRequest {
         }
     }
 
-    public void merge(ParameterWebSocketRequest other) {
-        ids.addAll(other.ids);
+    public Set<NamedObjectId> getIds() {
+        return ids;
     }
 }
@@ -84,8 +84,8 @@ public class YamcsStudioClient implements WebSocketClientCallback {
             });
         }, 2000, 1000, TimeUnit.MILLISECONDS);
 
-        parameterSubscriptionBundler = new ParameterSubscriptionBundler(this);
-        executor.scheduleWithFixedDelay(parameterSubscriptionBundler, 200, 400, TimeUnit.MILLISECONDS);
+        parameterSubscriptionBundler = new ParameterSubscriptionBundler(this, executor);
+        parameterSubscriptionBundler.start();
     }
 
     public void addConnectionListener(ConnectionListener connectionListener) {
@@ -188,6 +188,10 @@ public class YamcsStudioClient implements WebSocketClientCallback {
         return yprops;
     }
 
+    public ParameterSubscriptionBundler getParameterSubscriptionBundler() {
+        return parameterSubscriptionBundler;
+    }
+
     public ConnectionInfo getConnectionInfo() {
         return yamcsClient.getConnectionInfo();
     }
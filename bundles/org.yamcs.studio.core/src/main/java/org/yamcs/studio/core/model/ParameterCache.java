@@ -0,0 +1,109 @@
+package org.yamcs.studio.core.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.yamcs.protobuf.Mdb.MissionDatabase;
+import org.yamcs.protobuf.Mdb.ParameterInfo;
+import org.yamcs.protobuf.Mdb.SpaceSystemInfo;
+
+/**
+ * On-disk cache of the parameters of an MDB, one file per server and instance.
+ * <p>
+ * Entries are tagged with a key derived from the MDB version info. A cached list is only returned if that key still
+ * matches, so a changed MDB always leads to a full reload from the server.
+ */
+class ParameterCache {
+
+    private static final Logger log = Logger.getLogger(ParameterCache.class.getName());
+
+    private static final int FORMAT_VERSION = 1;
+
+    private File dir;
+
+    ParameterCache(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Returns a key that identifies the given MDB version, or null if the MDB does not carry enough version information
+     * to safely reuse cached parameters.
+     */
+    static String toVersionKey(MissionDatabase mdb) {
+        if (!mdb.hasVersion() || mdb.getVersion().isEmpty()) {
+            return null;
+        }
+        StringBuilder buf = new StringBuilder();
+        buf.append(mdb.getConfigName()).append(':').append(mdb.getName()).append(':').append(mdb.getVersion());
+        for (SpaceSystemInfo ss : mdb.getSpaceSystemList()) {
+            buf.append(';').append(ss.getQualifiedName()).append(':').append(ss.getVersion());
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Returns the cached parameters, or null if there is no entry for the given version key.
+     */
+    List<ParameterInfo> load(String server, String instance, String versionKey) {
+        File file = getFile(server, instance);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != FORMAT_VERSION || !versionKey.equals(in.readUTF())) {
+                return null;
+            }
+            int count = in.readInt();
+            List<ParameterInfo> parameters = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                parameters.add(ParameterInfo.parseDelimitedFrom(in));
+            }
+            return parameters;
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to read parameter cache " + file, e);
+            return null;
+        }
+    }
+
+    void save(String server, String instance, String versionKey, List<ParameterInfo> parameters) {
+        File file = getFile(server, instance);
+        try {
+            dir.mkdirs();
+            File tmpFile = File.createTempFile(file.getName(), ".tmp", dir);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmpFile))))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(versionKey);
+                out.writeInt(parameters.size());
+                for (ParameterInfo parameter : parameters) {
+                    parameter.writeDelimitedTo(out);
+                }
+            }
+            // Never leave a partially written file behind for the next startup
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to write parameter cache " + file, e);
+        }
+    }
+
+    private File getFile(String server, String instance) {
+        String name = (server + "_" + instance).replaceAll("[^\\w.-]", "_");
+        return new File(dir, name + ".parameters");
+    }
+}
@@ -1,9 +1,11 @@
 package org.yamcs.studio.core.model;
 
+import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +19,7 @@ import java.util.logging.Logger;
 
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
+import org.yamcs.api.YamcsConnectionProperties;
 import org.yamcs.client.WebSocketClientCallback;
 import org.yamcs.protobuf.Mdb.ListParametersResponse;
 import org.yamcs.protobuf.Mdb.MemberInfo;
@@ -27,6 +30,7 @@ import org.yamcs.protobuf.WebSocketServerMessage.WebSocketSubscriptionData;
 import org.yamcs.protobuf.Yamcs.NamedObjectId;
 import org.yamcs.protobuf.Yamcs.NamedObjectList;
 import org.yamcs.protobuf.Yamcs.Value;
+import org.yamcs.protobuf.YamcsInstance;
 import org.yamcs.studio.core.YamcsPlugin;
 import org.yamcs.studio.core.client.ParameterWebSocketRequest;
 import org.yamcs.studio.core.client.YamcsStudioClient;
@@ -48,6 +52,11 @@ public class ParameterCatalogue implements Catalogue, WebSocketClientCallback {
     // Index for faster repeat access
     private Map<NamedObjectId, String> unitsById = new ConcurrentHashMap<>();
 
+    // Types of aggregate members and array entries, keyed by qualified name plus path (see toTypePath)
+    private volatile Map<String, ParameterTypeInfo> typesByPath = Collections.emptyMap();
+
+    private ParameterCache parameterCache;
+
     public static ParameterCatalogue getInstance() {
         return YamcsPlugin.getDefault().getCatalogue(ParameterCatalogue.class);
     }
@@ -79,6 +88,7 @@ public class ParameterCatalogue implements Catalogue, WebSocketClientCallback {
     private void clearState() {
         metaParameters = Collections.emptyList();
         unitsById.clear();
+        typesByPath = Collections.emptyMap();
     }
 
     private synchronized void processMetaParameters(List<ParameterInfo> metaParameters) {
@@ -88,7 +98,12 @@ public class ParameterCatalogue implements Catalogue, WebSocketClientCallback {
             return p1.getQualifiedName().compareTo(p2.getQualifiedName());
         });
 
+        Map<String, ParameterTypeInfo> typesByPath = new HashMap<>();
         for (ParameterInfo p : this.metaParameters) {
+            if (p.hasType()) {
+                indexMemberTypes(p.getType(), p.getQualifiedName(), typesByPath);
+            }
+
             NamedObjectId id = NamedObjectId.newBuilder().setName(p.getQualifiedName()).build();
             parametersById.put(id, p);
             for (NamedObjectId alias : p.getAliasList()) {
@@ -104,10 +119,29 @@ public class ParameterCatalogue implements Catalogue, WebSocketClientCallback {
                 unitsById.put(id, combinedUnit);
             }
         }
+        this.typesByPath = typesByPath;
 
         parameterListeners.forEach(ParameterListener::mdbUpdated);
     }
 
+    /**
+     * Adds the type of every aggregate member and array entry below the given type to the index.
+     */
+    static void indexMemberTypes(ParameterTypeInfo type, String path,
+            Map<String, ParameterTypeInfo> typesByPath) {
+        for (MemberInfo member : type.getMemberList()) {
+            String memberPath = path + "." + member.getName();
+            typesByPath.put(memberPath, member.getType());
+            indexMemberTypes(member.getType(), memberPath, typesByPath);
+        }
+        if (type.hasArrayInfo()) {
+            String entryPath = path + "[]";
+            ParameterTypeInfo entryType = type.getArrayInfo().getType();
+            typesByPath.put(entryPath, entryType);
+            indexMemberTypes(entryType, entryPath, typesByPath);
+        }
+    }
+
     private void loadMetaParameters() {
         Job job = Job.create("Loading parameters", monitor -> {
             log.fine("Fetching available parameters");
@@ -116,28 +150,58 @@ public class ParameterCatalogue implements Catalogue, WebSocketClientCallback {
             List<ParameterInfo> parameters = new ArrayList<>();
 
             if (instance != null) {
+                YamcsConnectionProperties yprops = yamcsClient.getYamcsConnectionProperties();
+                String server = yprops.getHost() + ":" + yprops.getPort();
                 int pageSize = 500;
-                String next = null;
-                while (true) {
-                    String url = "/mdb/" + instance + "/parameters?details&limit=" + pageSize;
-                    if (next != null) {
-                        url += "&next=" + next;
+                String pageUrl = "/mdb/" + instance + "/parameters?details&limit=" + pageSize;
+
+                // Ask for the MDB version and the first page at the same time. The page is
+                // only used when the cache can't be.
+                CompletableFuture<byte[]> instanceFuture = ManagementCatalogue.getInstance()
+                        .fetchInstanceInformationRequest(instance);
+                CompletableFuture<byte[]> pageFuture = yamcsClient.get(pageUrl, null);
+
+                String versionKey = null;
+                try {
+                    YamcsInstance instanceInfo = YamcsInstance.parseFrom(instanceFuture.get());
+                    if (instanceInfo.hasMissionDatabase()) {
+                        versionKey = ParameterCache.toVersionKey(instanceInfo.getMissionDatabase());
                     }
+                } catch (InterruptedException e) {
+                    pageFuture.cancel(false);
+                    return Status.CANCEL_STATUS;
+                } catch (ExecutionException | InvalidProtocolBufferException e) {
+                    log.log(Level.WARNING, "Could not determine MDB version, parameter cache not used", e);
+                }
+
+                if (versionKey != null) {
+                    List<ParameterInfo> cached = getParameterCache().load(server, instance, versionKey);
+                    if (cached != null) {
+                        log.fine("Using cached parameters for MDB " + versionKey);
+                        pageFuture.cancel(false);
+                        processMetaParameters(cached);
+                        return Status.OK_STATUS;
+                    }
+                }
+
+                while (true) {
                     try {
-                        byte[] data = yamcsClient.get(url, null).get();
+                        byte[] data = pageFuture.get();
                         try {
                             ListParametersResponse response = ListParametersResponse.parseFrom(data);
                             parameters.addAll(response.getParametersList());
-                            if (response.hasContinuationToken()) {
-                                next = response.getContinuationToken();
-                            } else {
+                            if (!response.hasContinuationToken()) {
                                 break;
                             }
+                            pageFuture = yamcsClient.get(pageUrl + "&next=" + response.getContinuationToken(),
+                                    null);
                         } catch (InvalidProtocolBufferException e) {
                             log.log(Level.SEVERE, "Failed to decode server response", e);
+                            versionKey = null; // Incomplete
                             break;
                         }
                     } catch (InterruptedException e) {
+                        pageFuture.cancel(false);
                         return Status.CANCEL_STATUS;
                     } catch (ExecutionException e) {
                         Throwable cause = e.getCause();
@@ -145,12 +209,26 @@ public class ParameterCatalogue implements Catalogue, WebSocketClientCallback {
                         return Status.OK_STATUS;
                     }
                 }
+
+                processMetaParameters(parameters);
+                if (versionKey != null) {
+                    getParameterCache().save(server, instance, versionKey, parameters);
+                }
+                return Status.OK_STATUS;
             }
             processMetaParameters(parameters);
             return Status.OK_STATUS;
         });
         job.setPriority(Job.LONG);
-        job.schedule(1000L);
+        job.schedule();
+    }
+
+    private synchronized ParameterCache getParameterCache() {
+        if (parameterCache == null) {
+            File dir = YamcsPlugin.getDefault().getStateLocation().append("mdb").toFile();
+            parameterCache = new ParameterCache(dir);
+        }
+        return parameterCache;
     }
 
     public CompletableFuture<byte[]> requestParameterDetail(String qualifiedName) {
@@ -242,41 +320,37 @@ public class ParameterCatalogue implements Catalogue, WebSocketClientCallback {
         ParameterInfo parameter = getParameterInfo(id);
         if (parameter == null) {
             return null;
+        } else if (suffix == null) {
+            return parameter.getType();
+        } else {
+            return typesByPath.get(parameter.getQualifiedName() + toTypePath(suffix));
         }
-
-        String qualifiedNameWithSuffix = parameter.getQualifiedName();
-        if (suffix != null) {
-            qualifiedNameWithSuffix += suffix;
-        }
-
-        return findMatchingParameterType(parameter.getType(), parameter.getQualifiedName(), qualifiedNameWithSuffix);
     }
 
-    private ParameterTypeInfo findMatchingParameterType(ParameterTypeInfo parent, String parentName,
-            String qualifiedNameWithSuffix) {
-        if (parent == null) {
-            return null;
-        } else if (qualifiedNameWithSuffix.matches(parentName)) {
-            return parent;
-        } else {
-            for (MemberInfo member : parent.getMemberList()) {
-                ParameterTypeInfo memberType = member.getType();
-                String name = parentName + "." + member.getName();
-                ParameterTypeInfo match = findMatchingParameterType(memberType, name, qualifiedNameWithSuffix);
-                if (match != null) {
-                    return match;
-                }
-            }
-            if (parent.hasArrayInfo()) {
-                ParameterTypeInfo entryType = parent.getArrayInfo().getType();
-                String name = parentName + "\\[[0-9]+\\]";
-                ParameterTypeInfo match = findMatchingParameterType(entryType, name, qualifiedNameWithSuffix);
-                if (match != null) {
-                    return match;
-                }
+    /**
+     * Replaces array indexes in a member path with empty brackets, so that all entries of an array share the same key.
+     *
+     * For example: ".f[3].heh" becomes ".f[].heh"
+     */
+    static String toTypePath(String suffix) {
+        if (suffix.indexOf('[') == -1) {
+            return suffix;
+        }
+        StringBuilder buf = new StringBuilder(suffix.length());
+        boolean inIndex = false;
+        for (int i = 0; i < suffix.length(); i++) {
+            char c = suffix.charAt(i);
+            if (c == '[') {
+                buf.append(c);
+                inIndex = true;
+            } else if (c == ']') {
+                buf.append(c);
+                inIndex = false;
+            } else if (!inIndex) {
+                buf.append(c);
             }
         }
-        return null;
+        return buf.toString();
     }
 
     public String getCombinedUnit(NamedObjectId id) {
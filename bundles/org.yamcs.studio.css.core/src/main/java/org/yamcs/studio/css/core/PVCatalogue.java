@@ -1,7 +1,8 @@
 package org.yamcs.studio.css.core;
 
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,7 +28,11 @@ public class PVCatalogue implements YamcsConnectionListener, InstanceListener, P
 
     // Store PV channel handlers while connection is not established
     // Assumes that all names for all yamcs schemes are sharing a same namespace (which they should be)
-    private Map<NamedObjectId, ParameterChannelHandler> channelHandlersById = new LinkedHashMap<>();
+    // Values are never modified, only replaced. This keeps dispatch of incoming values lock-free.
+    private Map<NamedObjectId, ParameterChannelHandler[]> channelHandlersById = new ConcurrentHashMap<>();
+
+    // Keeps subscribe and unsubscribe requests for the same id in order
+    private final Object subscriptionLock = new Object();
 
     public static PVCatalogue getInstance() {
         return Activator.getDefault().getPVCatalogue();
@@ -59,22 +64,55 @@ public class PVCatalogue implements YamcsConnectionListener, InstanceListener, P
         reportConnectionState();
     }
 
-    public synchronized void register(ParameterChannelHandler channelHandler) {
-        channelHandlersById.put(channelHandler.getId(), channelHandler);
+    public void register(ParameterChannelHandler channelHandler) {
+        NamedObjectId id = channelHandler.getId();
+        channelHandlersById.compute(id, (k, handlers) -> {
+            if (handlers == null) {
+                return new ParameterChannelHandler[] { channelHandler };
+            } else if (!Arrays.asList(handlers).contains(channelHandler)) {
+                handlers = Arrays.copyOf(handlers, handlers.length + 1);
+                handlers[handlers.length - 1] = channelHandler;
+            }
+            return handlers;
+        });
+
         // Report current connection state
         boolean connected = YamcsPlugin.getYamcsClient().isConnected();
-        ParameterInfo parameter = ParameterCatalogue.getInstance().getParameterInfo(channelHandler.getId());
+        ParameterInfo parameter = ParameterCatalogue.getInstance().getParameterInfo(id);
         channelHandler.processConnectionInfo(new PVConnectionInfo(connected, parameter));
-        // Register (pending) websocket request
-        NamedObjectList idList = toNamedObjectList(channelHandler.getId());
-        ParameterCatalogue.getInstance().subscribeParameters(idList);
+
+        // Register (pending) websocket request. Also when already subscribed,
+        // the server then sends the current value to the new handler.
+        synchronized (subscriptionLock) {
+            ParameterCatalogue.getInstance().subscribeParameters(toNamedObjectList(id));
+        }
     }
 
-    public synchronized void unregister(ParameterChannelHandler channelHandler) {
-        channelHandlersById.remove(channelHandler.getId());
-        if (channelHandler.isConnected()) {
-            NamedObjectList idList = toNamedObjectList(channelHandler.getId());
-            ParameterCatalogue.getInstance().unsubscribeParameters(idList);
+    public void unregister(ParameterChannelHandler channelHandler) {
+        NamedObjectId id = channelHandler.getId();
+        boolean[] last = new boolean[1];
+        channelHandlersById.computeIfPresent(id, (k, handlers) -> {
+            int index = Arrays.asList(handlers).indexOf(channelHandler);
+            if (index == -1) {
+                return handlers;
+            }
+            if (handlers.length > 1) {
+                ParameterChannelHandler[] remaining = new ParameterChannelHandler[handlers.length - 1];
+                System.arraycopy(handlers, 0, remaining, 0, index);
+                System.arraycopy(handlers, index + 1, remaining, index, remaining.length - index);
+                return remaining;
+            }
+            last[0] = true;
+            return null;
+        });
+
+        if (last[0] && channelHandler.isConnected()) {
+            synchronized (subscriptionLock) {
+                // A handler for the same id may have registered in the meantime
+                if (!channelHandlersById.containsKey(id)) {
+                    ParameterCatalogue.getInstance().unsubscribeParameters(toNamedObjectList(id));
+                }
+            }
         }
     }
 
@@ -84,34 +122,40 @@ public class PVCatalogue implements YamcsConnectionListener, InstanceListener, P
 
     @Override
     public void mdbUpdated() {
-        channelHandlersById.forEach((id, channelHandler) -> {
+        channelHandlersById.forEach((id, channelHandlers) -> {
             ParameterInfo parameter = ParameterCatalogue.getInstance().getParameterInfo(id);
             if (log.isLoggable(Level.FINER)) {
                 log.finer(String.format("Signaling %s --> %s", id, parameter));
             }
-            channelHandler.processConnectionInfo(new PVConnectionInfo(true, parameter));
+            for (ParameterChannelHandler channelHandler : channelHandlers) {
+                channelHandler.processConnectionInfo(new PVConnectionInfo(true, parameter));
+            }
         });
     }
 
     @Override
     public void onParameterData(ParameterData pdata) {
         for (ParameterValue pval : pdata.getParameterList()) {
-            ParameterChannelHandler channelHandler = channelHandlersById.get(pval.getId());
-            if (channelHandler != null) {
+            ParameterChannelHandler[] channelHandlers = channelHandlersById.get(pval.getId());
+            if (channelHandlers != null) {
                 if (log.isLoggable(Level.FINER)) {
-                    log.finer(String.format("Request to update channel %s to %s", channelHandler.getId().getName(),
+                    log.finer(String.format("Request to update channel %s to %s", pval.getId().getName(),
                             StringConverter.toString(pval.getEngValue(), false)));
                 }
-                channelHandler.processParameterValue(pval);
+                for (ParameterChannelHandler channelHandler : channelHandlers) {
+                    channelHandler.processParameterValue(pval);
+                }
             }
         }
     }
 
     private void reportConnectionState() {
         boolean connected = YamcsPlugin.getYamcsClient().isConnected();
-        channelHandlersById.forEach((id, channelHandler) -> {
+        channelHandlersById.forEach((id, channelHandlers) -> {
             ParameterInfo parameter = ParameterCatalogue.getInstance().getParameterInfo(id);
-            channelHandler.processConnectionInfo(new PVConnectionInfo(connected, parameter));
+            for (ParameterChannelHandler channelHandler : channelHandlers) {
+                channelHandler.processConnectionInfo(new PVConnectionInfo(connected, parameter));
+            }
         });
     }
 }
@@ -1,5 +1,7 @@
 package org.yamcs.studio.css.core.pvmanager;
 
+import java.time.Duration;
+
 import org.diirt.datasource.ChannelHandler;
 import org.diirt.datasource.DataSource;
 import org.diirt.datasource.vtype.DataTypeSupport;
@@ -17,6 +19,8 @@ public class OpsDataSource extends DataSource {
 
     public OpsDataSource() {
         super(true /* writeable */);
+        // Parameter handlers keep no state once unsubscribed
+        setChannelIdleTimeout(Duration.ofMinutes(5));
     }
 
     @Override
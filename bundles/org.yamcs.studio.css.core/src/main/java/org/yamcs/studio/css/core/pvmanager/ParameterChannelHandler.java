@@ -32,6 +32,10 @@ public class ParameterChannelHandler extends MultiplexedChannelHandler<PVConnect
     private static final List<String> TRUTHY = Arrays.asList("y", "true", "yes", "1", "1.0");
     private NamedObjectId id;
 
+    // Closed handlers were evicted from the data source, and are never registered again
+    private final Object closeLock = new Object();
+    private boolean closed;
+
     public ParameterChannelHandler(NamedObjectId id) {
         super(id.getName());
         this.id = id;
@@ -64,10 +68,26 @@ public class ParameterChannelHandler extends MultiplexedChannelHandler<PVConnect
         disconnect(); // Unregister PV
     }
 
+    @Override
+    protected void close() {
+        synchronized (closeLock) {
+            closed = true;
+        }
+        YamcsPlugin.getDefault().removeYamcsConnectionListener(this);
+        ManagementCatalogue.getInstance().removeInstanceListener(this);
+        disconnect();
+    }
+
     @Override
     protected void connect() {
-        log.fine("PV connect on " + getChannelName());
-        PVCatalogue.getInstance().register(this);
+        // A connect could still be in flight when the handler is evicted
+        synchronized (closeLock) {
+            if (closed) {
+                return;
+            }
+            log.fine("PV connect on " + getChannelName());
+            PVCatalogue.getInstance().register(this);
+        }
     }
 
     @Override
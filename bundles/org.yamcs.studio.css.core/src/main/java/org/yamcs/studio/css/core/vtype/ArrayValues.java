@@ -0,0 +1,86 @@
+package org.yamcs.studio.css.core.vtype;
+
+import java.util.List;
+
+import org.diirt.util.array.ArrayBoolean;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.util.array.ArrayFloat;
+import org.diirt.util.array.ArrayInt;
+import org.diirt.util.array.ArrayLong;
+import org.yamcs.protobuf.Yamcs.Value;
+
+/**
+ * Decodes Yamcs array values directly into packed primitive arrays. The array VTypes call these lazily, the first
+ * time their data is requested, so that arrays which no widget reads are never materialized.
+ */
+final class ArrayValues {
+
+    private ArrayValues() {
+    }
+
+    static ArrayDouble toArrayDouble(Value arrayValue) {
+        List<Value> elements = arrayValue.getArrayValueList();
+        double[] values = new double[elements.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = elements.get(i).getDoubleValue();
+        }
+        return new ArrayDouble(values);
+    }
+
+    static ArrayFloat toArrayFloat(Value arrayValue) {
+        List<Value> elements = arrayValue.getArrayValueList();
+        float[] values = new float[elements.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = elements.get(i).getFloatValue();
+        }
+        return new ArrayFloat(values);
+    }
+
+    static ArrayInt toArrayInt(Value arrayValue) {
+        List<Value> elements = arrayValue.getArrayValueList();
+        int[] values = new int[elements.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = elements.get(i).getSint32Value();
+        }
+        return new ArrayInt(values);
+    }
+
+    /**
+     * Unsigned 32-bit values do not fit in an int, so they are widened to long.
+     */
+    static ArrayLong toArrayLongFromUint32(Value arrayValue) {
+        List<Value> elements = arrayValue.getArrayValueList();
+        long[] values = new long[elements.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = elements.get(i).getUint32Value() & 0xFFFFFFFFL;
+        }
+        return new ArrayLong(values);
+    }
+
+    static ArrayLong toArrayLongFromSint64(Value arrayValue) {
+        List<Value> elements = arrayValue.getArrayValueList();
+        long[] values = new long[elements.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = elements.get(i).getSint64Value();
+        }
+        return new ArrayLong(values);
+    }
+
+    static ArrayLong toArrayLongFromUint64(Value arrayValue) {
+        List<Value> elements = arrayValue.getArrayValueList();
+        long[] values = new long[elements.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = elements.get(i).getUint64Value();
+        }
+        return new ArrayLong(values);
+    }
+
+    static ArrayBoolean toArrayBoolean(Value arrayValue) {
+        List<Value> elements = arrayValue.getArrayValueList();
+        boolean[] values = new boolean[elements.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = elements.get(i).getBooleanValue();
+        }
+        return new ArrayBoolean(values);
+    }
+}
@@ -12,19 +12,14 @@ public class BooleanArrayVType extends YamcsVType implements VBooleanArray {
 
     private ListInt sizes;
 
-    private ArrayBoolean data;
+    // Decoded on first access
+    private volatile ArrayBoolean data;
 
     public BooleanArrayVType(ParameterValue pval) {
         super(pval);
 
         int size = pval.getEngValue().getArrayValueCount();
         sizes = new ArrayInt(size);
-
-        boolean[] booleanValues = new boolean[size];
-        for (int i = 0; i < booleanValues.length; i++) {
-            booleanValues[i] = pval.getEngValue().getArrayValue(i).getBooleanValue();
-        }
-        data = new ArrayBoolean(booleanValues);
     }
 
     @Override
@@ -34,6 +29,9 @@ public class BooleanArrayVType extends YamcsVType implements VBooleanArray {
 
     @Override
     public ListBoolean getData() {
+        if (data == null) {
+            data = ArrayValues.toArrayBoolean(pval.getEngValue());
+        }
         return data;
     }
 
@@ -17,7 +17,8 @@ public class DoubleArrayVType extends YamcsVType implements VDoubleArray {
     private ListInt sizes;
     private List<ArrayDimensionDisplay> dimensionDisplay;
 
-    private ArrayDouble data;
+    // Decoded on first access
+    private volatile ArrayDouble data;
 
     public DoubleArrayVType(ParameterValue pval) {
         super(pval);
@@ -25,12 +26,6 @@ public class DoubleArrayVType extends YamcsVType implements VDoubleArray {
         int size = pval.getEngValue().getArrayValueCount();
         sizes = new ArrayInt(size);
         dimensionDisplay = ValueUtil.defaultArrayDisplay(sizes);
-
-        double[] doubleValues = new double[size];
-        for (int i = 0; i < doubleValues.length; i++) {
-            doubleValues[i] = pval.getEngValue().getArrayValue(i).getDoubleValue();
-        }
-        data = new ArrayDouble(doubleValues);
     }
 
     @Override
@@ -40,6 +35,9 @@ public class DoubleArrayVType extends YamcsVType implements VDoubleArray {
 
     @Override
     public ListDouble getData() {
+        if (data == null) {
+            data = ArrayValues.toArrayDouble(pval.getEngValue());
+        }
         return data;
     }
 
@@ -2,7 +2,6 @@ package org.yamcs.studio.css.core.vtype;
 
 import java.util.List;
 
-import org.diirt.util.array.ArrayFloat;
 import org.diirt.util.array.ArrayInt;
 import org.diirt.util.array.ListFloat;
 import org.diirt.util.array.ListInt;
@@ -17,7 +16,8 @@ public class FloatArrayVType extends YamcsVType implements VFloatArray {
     private ListInt sizes;
     private List<ArrayDimensionDisplay> dimensionDisplay;
 
-    private ListFloat data;
+    // Decoded on first access
+    private volatile ListFloat data;
 
     public FloatArrayVType(ParameterValue pval) {
         super(pval);
@@ -25,12 +25,6 @@ public class FloatArrayVType extends YamcsVType implements VFloatArray {
         int size = pval.getEngValue().getArrayValueCount();
         sizes = new ArrayInt(size);
         dimensionDisplay = ValueUtil.defaultArrayDisplay(sizes);
-
-        float[] floatValues = new float[size];
-        for (int i = 0; i < floatValues.length; i++) {
-            floatValues[i] = pval.getEngValue().getArrayValue(i).getFloatValue();
-        }
-        data = new ArrayFloat(floatValues);
     }
 
     @Override
@@ -40,6 +34,9 @@ public class FloatArrayVType extends YamcsVType implements VFloatArray {
 
     @Override
     public ListFloat getData() {
+        if (data == null) {
+            data = ArrayValues.toArrayFloat(pval.getEngValue());
+        }
         return data;
     }
 
@@ -15,7 +15,8 @@ public class Sint32ArrayVType extends YamcsVType implements VIntArray {
     private ListInt sizes;
     private List<ArrayDimensionDisplay> dimensionDisplay;
 
-    private ArrayInt data;
+    // Decoded on first access
+    private volatile ArrayInt data;
 
     public Sint32ArrayVType(ParameterValue pval) {
         super(pval);
@@ -23,12 +24,6 @@ public class Sint32ArrayVType extends YamcsVType implements VIntArray {
         int size = pval.getEngValue().getArrayValueCount();
         sizes = new ArrayInt(size);
         dimensionDisplay = ValueUtil.defaultArrayDisplay(sizes);
-
-        int[] intValues = new int[size];
-        for (int i = 0; i < intValues.length; i++) {
-            intValues[i] = pval.getEngValue().getArrayValue(i).getSint32Value();
-        }
-        data = new ArrayInt(intValues);
     }
 
     @Override
@@ -38,6 +33,9 @@ public class Sint32ArrayVType extends YamcsVType implements VIntArray {
 
     @Override
     public ListInt getData() {
+        if (data == null) {
+            data = ArrayValues.toArrayInt(pval.getEngValue());
+        }
         return data;
     }
 
@@ -17,7 +17,8 @@ public class Sint64ArrayVType extends YamcsVType implements VLongArray {
     private ListInt sizes;
     private List<ArrayDimensionDisplay> dimensionDisplay;
 
-    private ArrayLong data;
+    // Decoded on first access
+    private volatile ArrayLong data;
 
     public Sint64ArrayVType(ParameterValue pval) {
         super(pval);
@@ -25,12 +26,6 @@ public class Sint64ArrayVType extends YamcsVType implements VLongArray {
         int size = pval.getEngValue().getArrayValueCount();
         sizes = new ArrayInt(size);
         dimensionDisplay = ValueUtil.defaultArrayDisplay(sizes);
-
-        long[] longValues = new long[size];
-        for (int i = 0; i < longValues.length; i++) {
-            longValues[i] = pval.getEngValue().getArrayValue(i).getSint64Value();
-        }
-        data = new ArrayLong(longValues);
     }
 
     @Override
@@ -40,6 +35,9 @@ public class Sint64ArrayVType extends YamcsVType implements VLongArray {
 
     @Override
     public ListLong getData() {
+        if (data == null) {
+            data = ArrayValues.toArrayLongFromSint64(pval.getEngValue());
+        }
         return data;
     }
 
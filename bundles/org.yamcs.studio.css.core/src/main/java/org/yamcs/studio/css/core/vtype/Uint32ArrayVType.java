@@ -3,7 +3,6 @@ package org.yamcs.studio.css.core.vtype;
 import java.util.List;
 
 import org.diirt.util.array.ArrayInt;
-import org.diirt.util.array.ArrayLong;
 import org.diirt.util.array.ListInt;
 import org.diirt.util.array.ListLong;
 import org.diirt.vtype.ArrayDimensionDisplay;
@@ -17,7 +16,8 @@ public class Uint32ArrayVType extends YamcsVType implements VLongArray {
     private ListInt sizes;
     private List<ArrayDimensionDisplay> dimensionDisplay;
 
-    private ListLong data;
+    // Decoded on first access
+    private volatile ListLong data;
 
     public Uint32ArrayVType(ParameterValue pval) {
         super(pval);
@@ -25,12 +25,6 @@ public class Uint32ArrayVType extends YamcsVType implements VLongArray {
         int size = pval.getEngValue().getArrayValueCount();
         sizes = new ArrayInt(size);
         dimensionDisplay = ValueUtil.defaultArrayDisplay(sizes);
-
-        long[] longValues = new long[size];
-        for (int i = 0; i < longValues.length; i++) {
-            longValues[i] = pval.getEngValue().getArrayValue(i).getUint32Value() & 0xFFFFFFFFL;
-        }
-        data = new ArrayLong(longValues);
     }
 
     @Override
@@ -40,6 +34,9 @@ public class Uint32ArrayVType extends YamcsVType implements VLongArray {
 
     @Override
     public ListLong getData() {
+        if (data == null) {
+            data = ArrayValues.toArrayLongFromUint32(pval.getEngValue());
+        }
         return data;
     }
 
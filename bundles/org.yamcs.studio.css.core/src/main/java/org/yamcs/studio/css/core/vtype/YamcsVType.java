@@ -11,23 +11,78 @@ import org.diirt.vtype.AlarmSeverity;
 import org.diirt.vtype.Display;
 import org.diirt.vtype.Time;
 import org.diirt.vtype.VType;
-import org.yamcs.protobuf.Mdb.AlarmLevelType;
 import org.yamcs.protobuf.Mdb.AlarmRange;
 import org.yamcs.protobuf.Pvalue.AcquisitionStatus;
 import org.yamcs.protobuf.Pvalue.ParameterValue;
 import org.yamcs.protobuf.Yamcs.Value;
 import org.yamcs.studio.core.model.ParameterCatalogue;
 import org.yamcs.studio.css.core.pvmanager.PVConnectionInfo;
+import org.yamcs.utils.TimeEncoding;
 
 public class YamcsVType implements VType, Alarm, Time, Display {
     protected ParameterValue pval;
 
+    // Decoded once, these are requested many times per update by widgets and formulas
+    private final Instant timestamp;
+    private final AlarmSeverity alarmSeverity;
+    private final double lowerWarningLimit;
+    private final double upperWarningLimit;
+    private final double lowerAlarmLimit;
+    private final double upperAlarmLimit;
+
     public YamcsVType(ParameterValue pval) {
         this.pval = pval;
+        timestamp = decodeTimestamp(pval);
+        alarmSeverity = decodeAlarmSeverity(pval);
+
+        double lowerWarningLimit = Double.NaN;
+        double upperWarningLimit = Double.NaN;
+        double lowerAlarmLimit = Double.NaN;
+        double upperAlarmLimit = Double.NaN;
+
+        // Assumes ordered ranges. The first range of a level that defines a bound wins.
+        for (int i = 0; i < pval.getAlarmRangeCount(); i++) {
+            AlarmRange range = pval.getAlarmRange(i);
+            switch (range.getLevel()) {
+            case WATCH:
+            case WARNING:
+            case DISTRESS:
+                if (Double.isNaN(lowerWarningLimit)) {
+                    lowerWarningLimit = getMin(range);
+                }
+                if (Double.isNaN(upperWarningLimit)) {
+                    upperWarningLimit = getMax(range);
+                }
+                break;
+            case CRITICAL:
+            case SEVERE:
+                if (Double.isNaN(lowerAlarmLimit)) {
+                    lowerAlarmLimit = getMin(range);
+                }
+                if (Double.isNaN(upperAlarmLimit)) {
+                    upperAlarmLimit = getMax(range);
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        this.lowerWarningLimit = lowerWarningLimit;
+        this.upperWarningLimit = upperWarningLimit;
+        this.lowerAlarmLimit = lowerAlarmLimit;
+        this.upperAlarmLimit = upperAlarmLimit;
     }
 
-    @Override
-    public AlarmSeverity getAlarmSeverity() {
+    private static Instant decodeTimestamp(ParameterValue pval) {
+        if (pval.hasGenerationTime()) {
+            return Instant.ofEpochMilli(TimeEncoding.toUnixMillisec(pval.getGenerationTime()));
+        }
+        Date dt = YamcsUTCString.parse(pval.getGenerationTimeUTC());
+        return (dt != null) ? dt.toInstant() : null;
+    }
+
+    private static AlarmSeverity decodeAlarmSeverity(ParameterValue pval) {
         if (pval.getAcquisitionStatus() == AcquisitionStatus.EXPIRED
                 || pval.getAcquisitionStatus() == AcquisitionStatus.NOT_RECEIVED
                 || pval.getAcquisitionStatus() == AcquisitionStatus.INVALID) {
@@ -55,6 +110,29 @@ public class YamcsVType implements VType, Alarm, Time, Display {
         }
     }
 
+    private static double getMin(AlarmRange range) {
+        if (range.hasMinInclusive()) {
+            return range.getMinInclusive();
+        } else if (range.hasMinExclusive()) {
+            return range.getMinExclusive();
+        }
+        return Double.NaN;
+    }
+
+    private static double getMax(AlarmRange range) {
+        if (range.hasMaxInclusive()) {
+            return range.getMaxInclusive();
+        } else if (range.hasMaxExclusive()) {
+            return range.getMaxExclusive();
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public AlarmSeverity getAlarmSeverity() {
+        return alarmSeverity;
+    }
+
     @Override
     public String getAlarmName() {
         return "";
@@ -62,8 +140,7 @@ public class YamcsVType implements VType, Alarm, Time, Display {
 
     @Override
     public Instant getTimestamp() {
-        Date dt = YamcsUTCString.parse(pval.getGenerationTimeUTC());
-        return (dt != null) ? dt.toInstant() : null;
+        return timestamp;
     }
 
     @Override
@@ -78,20 +155,7 @@ public class YamcsVType implements VType, Alarm, Time, Display {
 
     @Override
     public Double getLowerWarningLimit() {
-        // Assumes ordered ranges
-        for (AlarmRange range : pval.getAlarmRangeList()) {
-            if (range.getLevel() == AlarmLevelType.WATCH
-                    || range.getLevel() == AlarmLevelType.WARNING
-                    || range.getLevel() == AlarmLevelType.DISTRESS) {
-                if (range.hasMinInclusive()) {
-                    return range.getMinInclusive();
-                } else if (range.hasMinExclusive()) {
-                    return range.getMinExclusive();
-                }
-            }
-        }
-
-        return Double.NaN;
+        return lowerWarningLimit;
     }
 
     /**
@@ -99,37 +163,12 @@ public class YamcsVType implements VType, Alarm, Time, Display {
      */
     @Override
     public Double getUpperWarningLimit() {
-        // Assumes ordered ranges
-        for (AlarmRange range : pval.getAlarmRangeList()) {
-            if (range.getLevel() == AlarmLevelType.WATCH
-                    || range.getLevel() == AlarmLevelType.WARNING
-                    || range.getLevel() == AlarmLevelType.DISTRESS) {
-                if (range.hasMaxInclusive()) {
-                    return range.getMaxInclusive();
-                } else if (range.hasMaxExclusive()) {
-                    return range.getMaxExclusive();
-                }
-            }
-        }
-
-        return Double.NaN;
+        return upperWarningLimit;
     }
 
     @Override
     public Double getLowerAlarmLimit() {
-        // Assumes ordered ranges
-        for (AlarmRange range : pval.getAlarmRangeList()) {
-            if (range.getLevel() == AlarmLevelType.CRITICAL
-                    || range.getLevel() == AlarmLevelType.SEVERE) {
-                if (range.hasMinInclusive()) {
-                    return range.getMinInclusive();
-                } else if (range.hasMinExclusive()) {
-                    return range.getMinExclusive();
-                }
-            }
-        }
-
-        return Double.NaN;
+        return lowerAlarmLimit;
     }
 
     /**
@@ -137,39 +176,17 @@ public class YamcsVType implements VType, Alarm, Time, Display {
      */
     @Override
     public Double getUpperAlarmLimit() {
-        // Assumes ordered ranges
-        for (AlarmRange range : pval.getAlarmRangeList()) {
-            if (range.getLevel() == AlarmLevelType.CRITICAL
-                    || range.getLevel() == AlarmLevelType.SEVERE) {
-                if (range.hasMaxInclusive()) {
-                    return range.getMaxInclusive();
-                } else if (range.hasMaxExclusive()) {
-                    return range.getMaxExclusive();
-                }
-            }
-        }
-
-        return Double.NaN;
+        return upperAlarmLimit;
     }
 
     @Override
     public Double getLowerDisplayLimit() {
-        Double loLimit = getLowerAlarmLimit();
-        if (loLimit == Double.NaN) {
-            loLimit = getLowerWarningLimit();
-        }
-
-        return loLimit;
+        return Double.isNaN(lowerAlarmLimit) ? lowerWarningLimit : lowerAlarmLimit;
     }
 
     @Override
     public Double getUpperDisplayLimit() {
-        Double hiLimit = getUpperAlarmLimit();
-        if (hiLimit == Double.NaN) {
-            hiLimit = getUpperWarningLimit();
-        }
-
-        return hiLimit;
+        return Double.isNaN(upperAlarmLimit) ? upperWarningLimit : upperAlarmLimit;
     }
 
     @Override
@@ -1,75 +1,148 @@
 package org.yamcs.studio.eventlog;
 
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.swt.graphics.RGB;
 import org.yamcs.protobuf.Yamcs.Event;
 import org.yamcs.protobuf.Yamcs.Event.EventSeverity;
 
+/**
+ * A coloring rule for the event log. The expression is compiled once when the rule is created. It consists of
+ * conditions like {@code severity == WARNING}, combined with {@code &&} and {@code ||} (where {@code &&} binds
+ * stronger).
+ * <p>
+ * A rule with an invalid expression never matches. Use {@link #isValid()} to validate user input.
+ */
 public class ColoringRule {
 
-    private Pattern CONDITION = Pattern.compile("\\s*(severity|type|source)\\s*(==|!=)\\s*(\\w+)\\s*");
-    private Pattern LOGICAL_OP = Pattern.compile("(&&)|(\\|\\|)");
+    private static final Pattern CONDITION = Pattern.compile("\\s*(severity|type|source)\\s*(==|!=)\\s*(\\w+)\\s*");
+    private static final Pattern LOGICAL_OP = Pattern.compile("(&&)|(\\|\\|)");
 
     public final String expression;
     public final RGB bg;
     public final RGB fg;
 
+    // Disjunction of conjunctions. Null if the expression could not be compiled.
+    private final Condition[][] compiled;
+
     public ColoringRule(String expression, RGB bg, RGB fg) {
         this.expression = expression;
         this.bg = bg;
         this.fg = fg;
+        compiled = compile(expression);
+    }
+
+    /**
+     * Returns false if the expression could not be compiled.
+     */
+    public boolean isValid() {
+        return compiled != null;
     }
 
     public boolean matches(Event event) {
-        String trimmed = expression.trim();
-        if (trimmed.isEmpty()) {
+        if (compiled == null) {
+            return false;
+        }
+        if (compiled.length == 0) {
             return true;
         }
-        boolean matches = false;
-        try (Scanner scanner = new Scanner(expression)) {
-            String pendingLogicalOperation = null;
-            while (scanner.hasNext()) {
-                scanner.useDelimiter(LOGICAL_OP);
-                if (scanner.findInLine(CONDITION) != null) {
-                    String property = scanner.match().group(1);
-                    String op = scanner.match().group(2);
-                    String value = scanner.match().group(3);
-                    boolean eq;
-                    switch (property) {
-                    case "severity":
-                        eq = event.hasSeverity() && event.getSeverity().toString().equals(value);
-                        break;
-                    case "type":
-                        eq = event.hasType() && event.getType().equals(value);
-                        break;
-                    case "source":
-                        eq = event.hasSource() && event.getSource().equals(value);
-                        break;
-                    default:
-                        throw new UnsupportedOperationException();
-                    }
+        for (Condition[] conjunction : compiled) {
+            boolean allTrue = true;
+            for (Condition condition : conjunction) {
+                if (!condition.test(event)) {
+                    allTrue = false;
+                    break;
+                }
+            }
+            if (allTrue) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Condition[][] compile(String expression) {
+        if (expression.trim().isEmpty()) {
+            return new Condition[0][];
+        }
+
+        List<Condition[]> disjunction = new ArrayList<>();
+        List<Condition> conjunction = new ArrayList<>();
 
-                    boolean conditionTrue = ("==".equals(op) && eq) || ("!=".equals(op) && !eq);
-                    if (pendingLogicalOperation == null) {
-                        matches = conditionTrue;
-                    } else if ("&&".equals(pendingLogicalOperation)) {
-                        matches &= conditionTrue;
-                    } else if ("||".equals(pendingLogicalOperation)) {
-                        matches |= conditionTrue;
-                    } else {
-                        throw new UnsupportedOperationException();
+        Matcher conditionMatcher = CONDITION.matcher(expression);
+        Matcher opMatcher = LOGICAL_OP.matcher(expression);
+        int pos = 0;
+        while (true) {
+            conditionMatcher.region(pos, expression.length());
+            if (!conditionMatcher.lookingAt()) {
+                return null;
+            }
+            conjunction.add(new Condition(conditionMatcher.group(1), conditionMatcher.group(2),
+                    conditionMatcher.group(3)));
+            pos = conditionMatcher.end();
+            if (pos == expression.length()) {
+                break;
+            }
+
+            opMatcher.region(pos, expression.length());
+            if (!opMatcher.lookingAt()) {
+                return null;
+            }
+            if (opMatcher.group(2) != null) { // ||
+                disjunction.add(conjunction.toArray(new Condition[0]));
+                conjunction.clear();
+            }
+            pos = opMatcher.end();
+        }
+        disjunction.add(conjunction.toArray(new Condition[0]));
+
+        return disjunction.toArray(new Condition[0][]);
+    }
+
+    private static final class Condition {
+
+        private final String property;
+        private final boolean negate;
+        private final String value;
+        private final EventSeverity severity;
+
+        Condition(String property, String op, String value) {
+            this.property = property;
+            this.negate = "!=".equals(op);
+            this.value = value;
+            if ("severity".equals(property)) {
+                EventSeverity match = null;
+                for (EventSeverity candidate : EventSeverity.values()) {
+                    if (candidate.toString().equals(value)) {
+                        match = candidate;
                     }
-                } else {
-                    // System.out.println(scanner.next());
-                    throw new IllegalStateException("Invalid condition");
                 }
+                severity = match;
+            } else {
+                severity = null;
+            }
+        }
 
-                scanner.reset();
+        boolean test(Event event) {
+            boolean eq;
+            switch (property) {
+            case "severity":
+                eq = severity != null && event.hasSeverity() && event.getSeverity() == severity;
+                break;
+            case "type":
+                eq = event.hasType() && event.getType().equals(value);
+                break;
+            case "source":
+                eq = event.hasSource() && event.getSource().equals(value);
+                break;
+            default:
+                throw new UnsupportedOperationException();
             }
+            return negate ? !eq : eq;
         }
-        return matches;
     }
 
     public static void main(String... args) {
@@ -15,8 +15,6 @@ import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Text;
-import org.yamcs.protobuf.Yamcs.Event;
-import org.yamcs.protobuf.Yamcs.Event.EventSeverity;
 
 public class ColoringRuleDialog extends TitleAreaDialog {
 
@@ -112,23 +110,12 @@ public class ColoringRuleDialog extends TitleAreaDialog {
         setErrorMessage(null);
         boolean hasError = false;
 
-        try {
-            Event anyEvent = Event.newBuilder().setMessage("a message")
-                    .setSource("a source")
-                    .setGenerationTime(123L)
-                    .setReceptionTime(456L)
-                    .setSeqNumber(123)
-                    .setSeverity(EventSeverity.WARNING)
-                    .setType("a type")
-                    .build();
-            ColoringRule rule = new ColoringRule(expressionText.getText(), bg, fg);
-            rule.matches(anyEvent);
-        } catch (Exception e) {
+        ColoringRule rule = new ColoringRule(expressionText.getText(), bg, fg);
+        if (!rule.isValid()) {
             hasError = true;
             setErrorMessage("Invalid expression");
-        } finally {
-            getButton(IDialogConstants.OK_ID).setEnabled(!hasError);
         }
+        getButton(IDialogConstants.OK_ID).setEnabled(!hasError);
     }
 
     @Override
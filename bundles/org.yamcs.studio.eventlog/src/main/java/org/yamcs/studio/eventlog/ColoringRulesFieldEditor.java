@@ -1,5 +1,6 @@
 package org.yamcs.studio.eventlog;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -269,7 +270,7 @@ public class ColoringRulesFieldEditor extends FieldEditor {
 
     @Override
     protected void doLoad() {
-        List<ColoringRule> rules = EventLogPlugin.getDefault().loadColoringRules();
+        List<ColoringRule> rules = new ArrayList<>(EventLogPlugin.getDefault().loadColoringRules());
         tableViewer.setInput(rules);
     }
 
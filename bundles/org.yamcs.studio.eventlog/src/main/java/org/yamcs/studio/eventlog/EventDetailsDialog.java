@@ -6,8 +6,6 @@ import org.eclipse.jface.dialogs.TrayDialog;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.resource.LocalResourceManager;
 import org.eclipse.jface.resource.ResourceManager;
-import org.eclipse.jface.viewers.IStructuredSelection;
-import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.graphics.Font;
@@ -100,16 +98,14 @@ public class EventDetailsDialog extends TrayDialog {
     }
 
     private void backPressed() {
-        IStructuredSelection sel = new StructuredSelection(previousRec);
-        eventLog.getTableViewer().setSelection(sel, true);
+        eventLog.selectAndReveal(previousRec);
         updateRecord(previousRec);
         updateProperties();
         updateButtonState();
     }
 
     private void nextPressed() {
-        IStructuredSelection sel = new StructuredSelection(nextRec);
-        eventLog.getTableViewer().setSelection(sel, true);
+        eventLog.selectAndReveal(nextRec);
         updateRecord(nextRec);
         updateProperties();
         updateButtonState();
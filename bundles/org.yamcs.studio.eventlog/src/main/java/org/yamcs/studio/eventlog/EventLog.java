@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -28,7 +29,6 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.Shell;
-import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.IViewSite;
 import org.eclipse.ui.PlatformUI;
@@ -67,6 +67,9 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
     private List<Event> realtimeEvents = new ArrayList<>();
     private ScheduledExecutorService tableUpdater = Executors.newSingleThreadScheduledExecutor();
 
+    private volatile String searchTerm = "";
+    private Future<?> pendingSearch;
+
     public EventLog(Composite parent, int style) {
         super(parent, style);
         GridLayout gl = new GridLayout();
@@ -103,8 +106,10 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
         tableViewerWrapper.setLayout(new FillLayout());
 
         tableViewer = new EventLogTableViewer(tableViewerWrapper);
-        tableContentProvider = new EventLogContentProvider(tableViewer);
+        tableContentProvider = new EventLogContentProvider(tableViewer,
+                EventLogPlugin.getDefault().getMaximumEventCount());
         tableViewer.setContentProvider(tableContentProvider);
+        tableViewer.setInput(tableContentProvider);
 
         // Register context menu. Commands are added in plugin.xml
         menuManager = new MenuManager();
@@ -150,33 +155,29 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
         });
 
         EventLogSearchBoxFilter searchBoxFilter = new EventLogSearchBoxFilter();
-        tableViewer.addFilter(searchBoxFilter);
+        tableContentProvider.addFilter(searchBoxFilter);
         Debouncer debouncer = new Debouncer(tableUpdater);
         searchbox.addKeyListener(new KeyAdapter() {
             @Override
             public void keyReleased(KeyEvent ke) {
                 if (ke.keyCode == SWT.ARROW_DOWN) {
-                    TableItem[] items = tableViewer.getTable().getItems();
-                    if (items.length > 0) {
-                        tableViewer.getTable().setSelection(items[0]);
+                    if (tableContentProvider.getRowCount() > 0) {
+                        tableViewer.selectAndReveal(0);
                         tableViewer.getTable().setFocus();
                     }
                 } else {
                     String searchString = searchbox.getText();
-                    debouncer.debounce(() -> {
-                        searchBoxFilter.setSearchTerm(searchString);
-                        getDisplay().syncExec(() -> tableViewer.refresh());
-                    }, 400, TimeUnit.MILLISECONDS);
+                    debouncer.debounce(() -> search(searchString, searchBoxFilter), 400, TimeUnit.MILLISECONDS);
                 }
             }
         });
 
         EventLogSeverityFilter severityFilter = new EventLogSeverityFilter();
-        tableViewer.addFilter(severityFilter);
+        tableContentProvider.addFilter(severityFilter);
         severityCombo.addListener(SWT.Selection, evt -> {
             EventSeverity severity = EventSeverity.valueOf(severityCombo.getText());
             severityFilter.setMinimumSeverity(severity);
-            tableViewer.refresh();
+            tableContentProvider.refresh();
         });
 
         updateState();
@@ -196,7 +197,7 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
         prefListener = evt -> {
             if (evt.getProperty().equals(PreferencePage.PREF_RULES)) {
                 List<ColoringRule> rules = plugin.composeColoringRules((String) evt.getNewValue());
-                for (EventLogItem item : tableContentProvider.getElements(null)) {
+                for (EventLogItem item : tableContentProvider.getAllItems()) {
                     item.colorize(rules);
                 }
                 tableViewer.refresh();
@@ -206,6 +207,25 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
         plugin.getPreferenceStore().addPropertyChangeListener(prefListener);
     }
 
+    /**
+     * Runs a search on the index of the content provider, replacing any search that is still ongoing. The result is
+     * applied on the UI thread, unless the user has typed something else in the meantime.
+     */
+    private synchronized void search(String term, EventLogSearchBoxFilter searchBoxFilter) {
+        searchTerm = term;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        pendingSearch = tableContentProvider.getSearchIndex().search(term, result -> {
+            Display.getDefault().asyncExec(() -> {
+                if (!isDisposed() && result.term.equals(searchTerm)) {
+                    searchBoxFilter.setSearchTerm(result.term);
+                    tableContentProvider.refresh(result);
+                }
+            });
+        });
+    }
+
     private void updateState() {
         ICommandService service = (ICommandService) PlatformUI.getWorkbench().getService(ICommandService.class);
         Command command = service.getCommand(EventLog.CMD_SCROLL_LOCK);
@@ -257,7 +277,7 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
             int[] indices = tableViewer.getTable().getSelectionIndices();
             if (indices[0] > 0) {
                 int prevIndex = indices[0] - 1;
-                return (EventLogItem) tableViewer.getElementAt(prevIndex);
+                return tableContentProvider.getElementAt(prevIndex);
             }
         }
         return null;
@@ -266,9 +286,9 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
     public EventLogItem getNextRecord(EventLogItem rec) {
         if (tableViewer.getTable().getSelectionCount() > 0) {
             int[] indices = tableViewer.getTable().getSelectionIndices();
-            if (indices[0] < tableViewer.getTable().getItemCount() - 1) {
+            if (indices[0] < tableContentProvider.getRowCount() - 1) {
                 int nextIndex = indices[0] + 1;
-                return (EventLogItem) tableViewer.getElementAt(nextIndex);
+                return tableContentProvider.getElementAt(nextIndex);
             }
         }
         return null;
@@ -309,13 +329,15 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
         if (isDisposed()) {
             return;
         }
-        tableContentProvider.addEvents(events, false);
+        tableContentProvider.addEvents(events);
+    }
+
+    public void selectAndReveal(EventLogItem item) {
+        tableContentProvider.selectAndReveal(item);
     }
 
     public void clear() {
         tableContentProvider.clearAll();
-        tableViewer.setInput(null);
-        tableViewer.setSelection(null);
     }
 
     /**
@@ -324,7 +346,7 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
     public List<Event> getSortedEvents() {
         EventLogSorter comparator = tableViewer.getComparator();
 
-        EventLogItem[] allItems = tableContentProvider.getElements(null);
+        EventLogItem[] allItems = tableContentProvider.getAllItems();
         Arrays.sort(allItems, (o1, o2) -> {
             return comparator.compare(tableViewer, o1, o2);
         });
@@ -339,6 +361,7 @@ public class EventLog extends Composite implements YamcsConnectionListener, Inst
     @Override
     public void dispose() {
         tableUpdater.shutdown();
+        tableContentProvider.dispose();
         EventCatalogue.getInstance().removeEventListener(this);
         YamcsPlugin.getDefault().removeYamcsConnectionListener(this);
         ManagementCatalogue.getInstance().removeInstanceListener(this);
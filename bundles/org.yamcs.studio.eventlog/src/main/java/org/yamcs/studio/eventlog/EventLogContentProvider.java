@@ -1,29 +1,58 @@
 package org.yamcs.studio.eventlog;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.eclipse.jface.viewers.IStructuredContentProvider;
-import org.eclipse.jface.viewers.IStructuredSelection;
-import org.eclipse.jface.viewers.StructuredSelection;
-import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.custom.BusyIndicator;
 import org.yamcs.protobuf.Yamcs.Event;
 
-public class EventLogContentProvider implements IStructuredContentProvider {
+/**
+ * Lazy content provider for the (virtual) event log table.
+ * <p>
+ * All received events are kept in a ring buffer of bounded size. Once full, the oldest events are evicted. The rows
+ * of the table are a separate list of the items that pass all filters, kept in sort order. New events are inserted
+ * into that list at their sorted position, so the table only needs to re-request the rows that actually moved.
+ * <p>
+ * Events are also fed to a {@link EventLogSearchIndex}, whose results restrict the candidates for the rows when a
+ * search term is active.
+ */
+public class EventLogContentProvider implements ILazyContentProvider {
 
-    private Set<EventLogItem> items = new HashSet<>();
-    private TableViewer tableViewer;
+    private EventLogTableViewer tableViewer;
     private boolean scrollLock;
 
-    private EventLogItem lastAddedEvent;
+    // All events, oldest first. 'head' is the position of the oldest event.
+    // The ring grows as events arrive, up to 'capacity'.
+    private static final int INITIAL_RING_SIZE = 1024;
+    private EventLogItem[] ring;
+    private int capacity;
+    private int head;
+    private int count;
+    private Set<EventLogItem> items = new HashSet<>();
+    private int nextId = 0;
+
+    private EventLogSearchIndex searchIndex;
+    private EventLogSearchIndex.SearchResult searchResult;
 
-    public EventLogContentProvider(TableViewer tableViewer) {
+    // Items that pass the filters, in sort order. Index in this list is the table row.
+    private List<EventLogItem> rows = new ArrayList<>();
+    private List<ViewerFilter> filters = new ArrayList<>();
+
+    public EventLogContentProvider(EventLogTableViewer tableViewer, int maxEvents) {
         this.tableViewer = tableViewer;
+        capacity = Math.max(1, maxEvents);
+        ring = new EventLogItem[Math.min(capacity, INITIAL_RING_SIZE)];
+        searchIndex = new EventLogSearchIndex(capacity);
     }
 
     @Override
@@ -31,71 +60,266 @@ public class EventLogContentProvider implements IStructuredContentProvider {
     }
 
     @Override
-    public EventLogItem[] getElements(Object inputElement) {
-        return items.toArray(new EventLogItem[0]);
+    public void updateElement(int index) {
+        if (index < rows.size()) {
+            tableViewer.replace(rows.get(index), index);
+        }
+    }
+
+    public void addFilter(ViewerFilter filter) {
+        filters.add(filter);
     }
 
     public void addEvent(Event event) {
-        EventLogItem item = new EventLogItem(event);
+        addEvents(Collections.singletonList(event));
+    }
+
+    public void addEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
 
         EventLogPlugin plugin = EventLogPlugin.getDefault();
-        item.colorize(plugin.loadColoringRules());
+        List<ColoringRule> rules = plugin.loadColoringRules();
 
-        boolean update = items.contains(item);
-        items.add(item);
+        Set<EventLogItem> evicted = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<EventLogItem> added = new ArrayList<>(events.size());
+        for (Event event : events) {
+            EventLogItem item = new EventLogItem(event);
+            if (items.contains(item)) {
+                continue;
+            }
+            item.colorize(rules);
+            item.id = nextId++;
 
-        if (update) {
-            tableViewer.update(event, null); // Null, means all properties
-            maybeSelectAndReveal(item);
-        } else {
-            tableViewer.add(event);
-            maybeSelectAndReveal(item);
+            if (count == ring.length && ring.length < capacity) {
+                // Not yet evicting, so the oldest event is still at the start
+                ring = Arrays.copyOf(ring, (int) Math.min(capacity, ring.length * 2L));
+            }
+            if (count == ring.length) {
+                EventLogItem oldest = ring[head];
+                items.remove(oldest);
+                evicted.add(oldest);
+                ring[head] = item;
+                head = (head + 1) % ring.length;
+            } else {
+                ring[(head + count) % ring.length] = item;
+                count++;
+            }
+            items.add(item);
+            added.add(item);
         }
-    }
 
-    public void addEvents(List<Event> events, boolean increment) {
-        // 'increment' makes it a LOT slower. This is especially noticeable on batch imports.
-        // Not sure if we need increment anywhere.
-
-        if (events.isEmpty()) {
+        if (added.isEmpty()) {
             return;
         }
 
-        EventLogPlugin plugin = EventLogPlugin.getDefault();
+        // Rows are about to move, so keep track of what is selected rather than where
+        List<EventLogItem> selected = getSelectedItems();
+
+        int firstChangedRow = rows.size();
+        if (!evicted.isEmpty()) {
+            // Items of the same batch may have been evicted already, those never reached the rows.
+            added.removeIf(evicted::contains);
+            firstChangedRow = removeRows(evicted);
+        }
+        searchIndex.update(added, ring[head].id);
+
+        Comparator<EventLogItem> comparator = getRowComparator();
+        for (EventLogItem item : added) {
+            if (accept(item)) {
+                int index = Collections.binarySearch(rows, item, comparator);
+                if (index < 0) {
+                    index = -index - 1;
+                }
+                rows.add(index, item);
+                firstChangedRow = Math.min(firstChangedRow, index);
+            }
+        }
 
-        List<EventLogItem> updated = new ArrayList<>();
-        List<EventLogItem> added = new ArrayList<>();
+        updateTable(firstChangedRow);
 
-        List<EventLogItem> newItems = events.stream()
-                .map(EventLogItem::new).collect(Collectors.toList());
+        if (scrollLock) {
+            restoreSelection(selected);
+        } else if (!added.isEmpty()) {
+            selectAndReveal(added.get(added.size() - 1));
+        }
+    }
+
+    public EventLogSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
 
-        newItems.forEach(newItem -> {
-            newItem.colorize(plugin.loadColoringRules());
-            if (items.contains(newItem)) {
-                updated.add(newItem);
+    /**
+     * Replaces the active search result and re-applies filters and sort order.
+     */
+    public void refresh(EventLogSearchIndex.SearchResult searchResult) {
+        this.searchResult = (searchResult != null && searchResult.items != null) ? searchResult : null;
+        refresh();
+    }
+
+    /**
+     * Re-applies filters and sort order to all events. To be called when either of them changes.
+     */
+    public void refresh() {
+        List<EventLogItem> newRows = new ArrayList<>(count);
+        int start = 0;
+        if (searchResult != null && count > 0) {
+            // Only index matches, plus whatever arrived after the index was queried
+            int firstLiveId = ring[head].id;
+            for (EventLogItem item : searchResult.items) {
+                if (item.id >= firstLiveId && accept(item)) {
+                    newRows.add(item);
+                }
+            }
+            start = Math.max(0, searchResult.lastIndexedId + 1 - firstLiveId);
+            start = Math.min(start, count);
+        }
+        for (int i = start; i < count; i++) {
+            EventLogItem item = ring[(head + i) % ring.length];
+            if (accept(item)) {
+                newRows.add(item);
+            }
+        }
+        newRows.sort(getRowComparator());
+        List<EventLogItem> selected = getSelectedItems();
+        rows = newRows;
+        updateTable(0);
+        restoreSelection(selected);
+    }
+
+    /**
+     * Removes the rows of the given items, looking them up by sort order rather than scanning all rows. Returns the
+     * first row that changed.
+     */
+    private int removeRows(Collection<EventLogItem> removed) {
+        int[] indexes = new int[removed.size()];
+        int n = 0;
+        for (EventLogItem item : removed) {
+            int index = indexOf(item);
+            if (index >= 0) {
+                indexes[n++] = index;
+            }
+        }
+        if (n == 0) {
+            return rows.size();
+        }
+        Arrays.sort(indexes, 0, n);
+
+        // Shift the remaining rows in one pass, starting from the first removed row
+        int first = indexes[0];
+        int write = first;
+        int next = 0;
+        for (int read = first; read < rows.size(); read++) {
+            if (next < n && indexes[next] == read) {
+                next++;
             } else {
-                added.add(newItem);
+                rows.set(write++, rows.get(read));
             }
-            items.add(newItem);
-        });
+        }
+        rows.subList(write, rows.size()).clear();
+        return first;
+    }
 
-        if (increment) {
-            tableViewer.add(added.toArray());
-            tableViewer.update(updated.toArray(), null);
-        } else {
-            tableViewer.setInput("anything-except-null");
-            tableViewer.refresh();
+    private void updateTable(int firstChangedRow) {
+        tableViewer.setItemCount(rows.size());
+        if (firstChangedRow < rows.size()) {
+            // Only rows that are visible are requested again
+            tableViewer.getTable().clear(firstChangedRow, rows.size() - 1);
         }
+    }
 
-        lastAddedEvent = newItems.get(newItems.size() - 1);
+    private List<EventLogItem> getSelectedItems() {
+        int[] indices = tableViewer.getTable().getSelectionIndices();
+        List<EventLogItem> selected = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            if (index < rows.size()) {
+                selected.add(rows.get(index));
+            }
+        }
+        return selected;
+    }
 
-        maybeSelectAndReveal(lastAddedEvent);
+    /**
+     * Selects the rows of the given items again, after they may have moved. Items that were evicted or filtered out
+     * are no longer selected. The table is not scrolled.
+     */
+    private void restoreSelection(List<EventLogItem> selected) {
+        if (selected.isEmpty()) {
+            return;
+        }
+        int[] indices = new int[selected.size()];
+        int n = 0;
+        for (EventLogItem item : selected) {
+            int index = indexOf(item);
+            if (index >= 0) {
+                indices[n++] = index;
+            }
+        }
+        tableViewer.getTable().deselectAll();
+        tableViewer.getTable().select(Arrays.copyOf(indices, n));
     }
 
-    private void maybeSelectAndReveal(EventLogItem event) {
-        if (!scrollLock) {
-            IStructuredSelection sel = new StructuredSelection(event);
-            tableViewer.setSelection(sel, true);
+    private boolean accept(EventLogItem item) {
+        for (ViewerFilter filter : filters) {
+            if (!filter.select(tableViewer, null, item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Comparator<EventLogItem> getRowComparator() {
+        EventLogSorter sorter = tableViewer.getComparator();
+        return (o1, o2) -> sorter.compare(tableViewer, o1, o2);
+    }
+
+    /**
+     * Returns the row index of the given item, or -1 if it is not currently shown.
+     */
+    public int indexOf(EventLogItem item) {
+        Comparator<EventLogItem> comparator = getRowComparator();
+        int index = Collections.binarySearch(rows, item, comparator);
+        if (index < 0) {
+            return -1;
+        }
+        // Other rows may compare equal, look around the match
+        for (int i = index; i >= 0 && comparator.compare(rows.get(i), item) == 0; i--) {
+            if (rows.get(i) == item) {
+                return i;
+            }
+        }
+        for (int i = index + 1; i < rows.size() && comparator.compare(rows.get(i), item) == 0; i++) {
+            if (rows.get(i) == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public EventLogItem getElementAt(int index) {
+        return (index >= 0 && index < rows.size()) ? rows.get(index) : null;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * Returns all events, including those that are filtered out, from oldest to newest.
+     */
+    public EventLogItem[] getAllItems() {
+        EventLogItem[] result = new EventLogItem[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = ring[(head + i) % ring.length];
+        }
+        return result;
+    }
+
+    public void selectAndReveal(EventLogItem item) {
+        int index = indexOf(item);
+        if (index >= 0) {
+            tableViewer.selectAndReveal(index);
         }
     }
 
@@ -103,13 +327,23 @@ public class EventLogContentProvider implements IStructuredContentProvider {
         scrollLock = enabled;
     }
 
+    public void dispose() {
+        searchIndex.dispose();
+    }
+
     public void clearAll() {
-        // TODO not sure if this is the recommended way to delete all. Need to verify
         BusyIndicator.showWhile(tableViewer.getTable().getDisplay(), () -> {
-            tableViewer.getTable().setRedraw(false);
-            tableViewer.remove(items.toArray());
+            for (int i = 0; i < count; i++) {
+                ring[(head + i) % ring.length] = null;
+            }
+            head = 0;
+            count = 0;
             items.clear();
-            tableViewer.getTable().setRedraw(true);
+            rows.clear();
+            searchResult = null;
+            searchIndex.clear();
+            tableViewer.getTable().deselectAll();
+            tableViewer.setItemCount(0);
         });
     }
 }
@@ -9,6 +9,10 @@ import org.yamcs.protobuf.Yamcs.Event;
 public class EventLogItem {
 
     public final Event event;
+
+    // Position in order of arrival, assigned by the content provider
+    int id;
+
     public RGB bg;
     public RGB fg;
 
@@ -17,6 +21,8 @@ public class EventLogItem {
     }
 
     public void colorize(List<ColoringRule> rules) {
+        bg = null;
+        fg = null;
         for (ColoringRule rule : rules) {
             if (rule.matches(event)) {
                 bg = rule.bg;
@@ -1,12 +1,14 @@
 package org.yamcs.studio.eventlog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.StringConverter;
+import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
@@ -17,14 +19,24 @@ public class EventLogPlugin extends AbstractUIPlugin {
 
     private static EventLogPlugin plugin;
 
+    // Compiled rules, cached until the preference changes
+    private volatile List<ColoringRule> coloringRules;
+    private IPropertyChangeListener rulesListener = evt -> {
+        if (evt.getProperty().equals(PreferencePage.PREF_RULES)) {
+            coloringRules = null;
+        }
+    };
+
     @Override
     public void start(BundleContext context) throws Exception {
         super.start(context);
         plugin = this;
+        getPreferenceStore().addPropertyChangeListener(rulesListener);
     }
 
     @Override
     public void stop(BundleContext context) throws Exception {
+        getPreferenceStore().removePropertyChangeListener(rulesListener);
         super.stop(context);
         plugin = null;
     }
@@ -50,6 +62,11 @@ public class EventLogPlugin extends AbstractUIPlugin {
         return getPreferenceStore().getInt(PreferencePage.PREF_LINECOUNT);
     }
 
+    public int getMaximumEventCount() {
+        int maxCount = getPreferenceStore().getInt(PreferencePage.PREF_MAXCOUNT);
+        return Math.max(1, Math.min(maxCount, PreferencePage.MAX_EVENT_COUNT));
+    }
+
     public void storeColoringRules(List<ColoringRule> rules) {
         IPreferenceStore store = getPreferenceStore();
 
@@ -68,10 +85,18 @@ public class EventLogPlugin extends AbstractUIPlugin {
         store.setValue(PreferencePage.PREF_RULES, buf.toString());
     }
 
+    /**
+     * Returns the configured coloring rules. The returned list is shared and cannot be modified.
+     */
     public List<ColoringRule> loadColoringRules() {
-        IPreferenceStore store = getPreferenceStore();
-        String joined = store.getString(PreferencePage.PREF_RULES);
-        return composeColoringRules(joined);
+        List<ColoringRule> rules = coloringRules;
+        if (rules == null) {
+            IPreferenceStore store = getPreferenceStore();
+            String joined = store.getString(PreferencePage.PREF_RULES);
+            rules = Collections.unmodifiableList(composeColoringRules(joined));
+            coloringRules = rules;
+        }
+        return rules;
     }
 
     public List<ColoringRule> loadDefaultColoringRules() {
@@ -1,28 +1,29 @@
 package org.yamcs.studio.eventlog;
 
-import java.util.regex.Pattern;
-
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
-import org.yamcs.protobuf.Yamcs.Event;
 
+/**
+ * Case-insensitive substring filter on message, type and source. Whole-log searches are answered by
+ * {@link EventLogSearchIndex}, this filter is only applied to individual events (incoming events and index
+ * candidates).
+ */
 public class EventLogSearchBoxFilter extends ViewerFilter {
 
-    private Pattern pattern = Pattern.compile(".*");
+    private String searchTerm = "";
 
     public void setSearchTerm(String searchTerm) {
-        pattern = Pattern.compile("(?i:.*" + searchTerm + ".*)");
+        this.searchTerm = searchTerm;
+    }
+
+    public String getSearchTerm() {
+        return searchTerm;
     }
 
     @Override
     public boolean select(Viewer viewer, Object parentElement, Object element) {
         if (element instanceof EventLogItem) {
-            Event event = ((EventLogItem) element).event;
-            if (pattern.matcher(event.getMessage()).matches()
-                    || (event.hasType() && pattern.matcher(event.getType()).matches())
-                    || (event.hasSource() && pattern.matcher(event.getSource()).matches())) {
-                return true;
-            }
+            return searchTerm.isEmpty() || EventLogSearchIndex.matches(((EventLogItem) element).event, searchTerm);
         }
         return false;
     }
@@ -0,0 +1,299 @@
+package org.yamcs.studio.eventlog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.yamcs.protobuf.Yamcs.Event;
+
+/**
+ * Trigram index over the message, type and source of the events in the event log.
+ * <p>
+ * The index is updated as events arrive and queried on its own background thread, so that neither indexing nor
+ * searching happens on the UI thread. A query intersects the posting lists of all trigrams of the search term, and
+ * only checks the remaining candidates against the actual text. Terms shorter than a trigram fall back to a scan.
+ * <p>
+ * Items are identified by their {@link EventLogItem#id}, which must be assigned in increasing order. Evicting always
+ * removes the oldest items, so posting lists stay sorted and stale entries are only found at their start.
+ */
+public class EventLogSearchIndex {
+
+    private static final int CHECK_INTERRUPT_INTERVAL = 1024;
+
+    private ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Event Log Search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // All fields below are only accessed from the executor thread
+    private Map<Long, Postings> postings = new HashMap<>();
+    private EventLogItem[] items;
+    private int capacity;
+    private int minId = 0; // Lowest id that is still live
+    private int nextId = 0; // Id that follows the last indexed item
+    private int evictedSinceSweep = 0;
+
+    public EventLogSearchIndex(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        items = new EventLogItem[Math.min(this.capacity, 1024)];
+    }
+
+    /**
+     * Indexes the given (new) items, and forgets about all items with an id lower than {@code firstLiveId}.
+     */
+    public void update(List<EventLogItem> added, int firstLiveId) {
+        List<EventLogItem> copy = new ArrayList<>(added);
+        executor.execute(() -> {
+            for (EventLogItem item : copy) {
+                index(item);
+            }
+            evict(firstLiveId);
+        });
+    }
+
+    public void clear() {
+        executor.execute(() -> {
+            postings.clear();
+            Arrays.fill(items, null);
+            minId = nextId;
+            evictedSinceSweep = 0;
+        });
+    }
+
+    /**
+     * Searches the index in the background. The callback is invoked on the index thread, unless the returned future
+     * was cancelled before the search completed.
+     */
+    public Future<?> search(String term, Consumer<SearchResult> callback) {
+        return executor.submit(() -> {
+            List<EventLogItem> matches = term.isEmpty() ? null : query(term);
+            if (!Thread.currentThread().isInterrupted()) {
+                callback.accept(new SearchResult(term, matches, nextId - 1));
+            }
+        });
+    }
+
+    public void dispose() {
+        executor.shutdownNow();
+    }
+
+    private void index(EventLogItem item) {
+        if (item.id - minId >= items.length && items.length < capacity) {
+            grow();
+        }
+        items[item.id % items.length] = item;
+        nextId = item.id + 1;
+
+        Event event = item.event;
+        indexText(item.id, event.getMessage());
+        if (event.hasType()) {
+            indexText(item.id, event.getType());
+        }
+        if (event.hasSource()) {
+            indexText(item.id, event.getSource());
+        }
+    }
+
+    private void grow() {
+        EventLogItem[] newItems = new EventLogItem[(int) Math.min(capacity, items.length * 2L)];
+        for (EventLogItem item : items) {
+            if (item != null && item.id >= minId) {
+                newItems[item.id % newItems.length] = item;
+            }
+        }
+        items = newItems;
+    }
+
+    private void indexText(int id, String text) {
+        for (int i = 0; i + 2 < text.length(); i++) {
+            long trigram = trigram(text, i);
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                list = new Postings();
+                postings.put(trigram, list);
+            }
+            list.add(id);
+        }
+    }
+
+    private void evict(int firstLiveId) {
+        if (firstLiveId <= minId) {
+            return;
+        }
+        for (int id = minId; id < firstLiveId && id < nextId; id++) {
+            int slot = id % items.length;
+            if (items[slot] != null && items[slot].id == id) {
+                items[slot] = null;
+            }
+        }
+        evictedSinceSweep += firstLiveId - minId;
+        minId = firstLiveId;
+
+        // Drop stale ids in bulk, once enough of them accumulated
+        if (evictedSinceSweep >= items.length) {
+            Iterator<Postings> it = postings.values().iterator();
+            while (it.hasNext()) {
+                Postings list = it.next();
+                list.trim(minId);
+                if (list.isEmpty()) {
+                    it.remove();
+                }
+            }
+            evictedSinceSweep = 0;
+        }
+    }
+
+    private List<EventLogItem> query(String term) {
+        if (term.length() < 3) {
+            return scan(term);
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 2 < term.length(); i++) {
+            Postings list = postings.get(trigram(term, i));
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            list.trim(minId);
+            lists.add(list);
+        }
+        lists.sort((l1, l2) -> Integer.compare(l1.size(), l2.size()));
+
+        List<EventLogItem> result = new ArrayList<>();
+        Postings smallest = lists.get(0);
+        for (int i = smallest.start; i < smallest.end; i++) {
+            if (i % CHECK_INTERRUPT_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                return result;
+            }
+            int id = smallest.ids[i];
+            boolean candidate = true;
+            for (int j = 1; j < lists.size() && candidate; j++) {
+                candidate = lists.get(j).contains(id);
+            }
+            if (candidate) {
+                EventLogItem item = items[id % items.length];
+                // Trigrams may match in a different order, so verify against the text
+                if (item != null && item.id == id && matches(item.event, term)) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<EventLogItem> scan(String term) {
+        List<EventLogItem> result = new ArrayList<>();
+        for (int id = minId; id < nextId; id++) {
+            if (id % CHECK_INTERRUPT_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                return result;
+            }
+            EventLogItem item = items[id % items.length];
+            if (item != null && item.id == id && matches(item.event, term)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the message, type or source of the event contains the term, ignoring case.
+     */
+    public static boolean matches(Event event, String term) {
+        return containsIgnoreCase(event.getMessage(), term)
+                || (event.hasType() && containsIgnoreCase(event.getType(), term))
+                || (event.hasSource() && containsIgnoreCase(event.getSource(), term));
+    }
+
+    private static boolean containsIgnoreCase(String text, String term) {
+        int max = text.length() - term.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, term, 0, term.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long trigram(String text, int offset) {
+        long c0 = Character.toLowerCase(text.charAt(offset));
+        long c1 = Character.toLowerCase(text.charAt(offset + 1));
+        long c2 = Character.toLowerCase(text.charAt(offset + 2));
+        return (c0 << 32) | (c1 << 16) | c2;
+    }
+
+    public static class SearchResult {
+
+        public final String term;
+
+        /**
+         * Matching items in order of arrival, or null if the term does not restrict anything.
+         */
+        public final List<EventLogItem> items;
+
+        /**
+         * Id of the last item that was indexed when this result was computed. Newer items were not considered.
+         */
+        public final int lastIndexedId;
+
+        SearchResult(String term, List<EventLogItem> items, int lastIndexedId) {
+            this.term = term;
+            this.items = items;
+            this.lastIndexedId = lastIndexedId;
+        }
+    }
+
+    /**
+     * Sorted list of item ids. Ids below {@link #start} are no longer part of the list.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int start;
+        private int end;
+
+        void add(int id) {
+            if (end > start && ids[end - 1] == id) {
+                return; // Same trigram occurs more than once for this item
+            }
+            if (end == ids.length) {
+                if (start >= ids.length / 2) {
+                    System.arraycopy(ids, start, ids, 0, end - start);
+                } else {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                    System.arraycopy(ids, start, ids, 0, end - start);
+                }
+                end -= start;
+                start = 0;
+            }
+            ids[end++] = id;
+        }
+
+        void trim(int minId) {
+            if (start < end && ids[start] < minId) {
+                int index = Arrays.binarySearch(ids, start, end, minId);
+                start = (index >= 0) ? index : -index - 1;
+            }
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, start, end, id) >= 0;
+        }
+
+        boolean isEmpty() {
+            return start == end;
+        }
+
+        int size() {
+            return end - start;
+        }
+    }
+}
@@ -93,8 +93,8 @@ public class EventLogTableViewer extends TableViewer {
         restoreColumnState();
         createColumns();
 
+        // Not installed on the viewer. Lazy content is sorted by EventLogContentProvider.
         comparator = new EventLogSorter();
-        setComparator(comparator);
     }
 
     public ColumnData createDefaultColumnData() {
@@ -123,12 +123,23 @@ public class EventLogTableViewer extends TableViewer {
                 int dir = comparator.getDirection();
                 getTable().setSortDirection(dir);
                 getTable().setSortColumn(column);
-                refresh();
+                ((EventLogContentProvider) getContentProvider()).refresh();
             }
         };
         return selectionAdapter;
     }
 
+    /**
+     * Selects the row at the given index. Unlike {@link #setSelection(org.eclipse.jface.viewers.ISelection, boolean)}
+     * this does not need to materialize every row of the lazy table to find the element.
+     */
+    public void selectAndReveal(int index) {
+        Table table = getTable();
+        table.setSelection(index);
+        table.showSelection();
+        updateSelection(getSelection());
+    }
+
     private class EventLogColumnLabelProvider extends ColumnLabelProvider {
 
         @Override
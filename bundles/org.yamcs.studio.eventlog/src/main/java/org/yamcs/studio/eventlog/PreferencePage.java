@@ -12,8 +12,15 @@ public class PreferencePage extends FieldEditorPreferencePage implements IWorkbe
 
     public static final String PREF_LINECOUNT = "events.nbMessageLineToDisplay";
     public static final String PREF_RULES = "rules.list";
+    public static final String PREF_MAXCOUNT = "events.maxCount";
+
+    /**
+     * Upper bound for the maximum number of events kept in the log.
+     */
+    public static final int MAX_EVENT_COUNT = 1000000;
 
     private IntegerFieldEditor messageLineCount;
+    private IntegerFieldEditor maximumEventCount;
 
     public PreferencePage() {
         super(GRID);
@@ -35,13 +42,19 @@ public class PreferencePage extends FieldEditorPreferencePage implements IWorkbe
         messageLineCount = new IntegerFieldEditor(PREF_LINECOUNT,
                 "Number of lines per event message (0: unlimited)", parent);
         addField(messageLineCount);
+
+        maximumEventCount = new IntegerFieldEditor(PREF_MAXCOUNT,
+                "Maximum number of events kept in the log", parent);
+        maximumEventCount.setValidRange(1, MAX_EVENT_COUNT);
+        addField(maximumEventCount);
     }
 
     @Override
     public boolean performOk() {
         IPreferenceStore store = EventLogPlugin.getDefault().getPreferenceStore();
 
-        boolean propertiesChanged = messageLineCount.getIntValue() != store.getInt(PREF_LINECOUNT);
+        boolean propertiesChanged = messageLineCount.getIntValue() != store.getInt(PREF_LINECOUNT)
+                || maximumEventCount.getIntValue() != store.getInt(PREF_MAXCOUNT);
 
         // Save to store
         boolean ret = super.performOk();
@@ -0,0 +1,166 @@
+package org.csstudio.opibuilder.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Proxy;
+
+import javax.script.Bindings;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import org.csstudio.opibuilder.model.AbstractWidgetModel;
+import org.csstudio.simplepv.IPV;
+import org.diirt.vtype.AlarmSeverity;
+import org.diirt.vtype.VType;
+import org.diirt.vtype.ValueFactory;
+import org.junit.Test;
+
+/**
+ * Checks that compiled rules set the same values as the generated JavaScript.
+ */
+public class CompiledRuleTest {
+
+    private static final double[][] INPUTS = {
+            { 0, 0 }, { 1, 0 }, { 1.5, 2 }, { -3, 10 }, { 10, -3 }, { 2, 2 }, { 100, 0.5 } };
+
+    private static final AlarmSeverity[] SEVERITIES = {
+            AlarmSeverity.NONE, AlarmSeverity.MINOR, AlarmSeverity.MAJOR, AlarmSeverity.INVALID };
+
+    @Test
+    public void testNumberConditions() throws Exception {
+        checkEquivalent(false, "pv0 > 1", "pv0 == 1 || pv1 >= 2", "pv0 < -1 && pv1 != 10", "!(pv0 <= 2)",
+                "pv0 === 2 && !(pv1 !== 2)", "pv0 >= 1.5e1", "-pv0 > 2");
+    }
+
+    @Test
+    public void testIntegerConditions() throws Exception {
+        checkEquivalent(false, "pvInt0 == 1", "pvInt0 > pvInt1 || (pvInt1 < 0 && true)");
+    }
+
+    @Test
+    public void testStringConditions() throws Exception {
+        checkEquivalent(false, "pvStr0 == \"1.5\"", "pvStr0 != '2' && pvStr1 < \"5\"");
+    }
+
+    @Test
+    public void testSeverityConditions() throws Exception {
+        for (AlarmSeverity severity : SEVERITIES) {
+            RuleData rule = newRule(false, "pvSev0 == 1", "pvSev0 == 2 || pvSev0 == -1");
+            VType value = ValueFactory.newVDouble(1.0, ValueFactory.newAlarm(severity, severity.name()),
+                    ValueFactory.timeNow(), ValueFactory.displayNone());
+            checkEquivalent(rule, new VType[] { value, value });
+        }
+    }
+
+    @Test
+    public void testOutputExpressionValues() throws Exception {
+        checkEquivalent(true, "pv0 > 1", "pv1 < 0");
+    }
+
+    @Test
+    public void testUnsupportedExpressions() {
+        // These run as generated JavaScript
+        assertNull(CompiledRule.compile(newRule(false, "pv0")));
+        assertNull(CompiledRule.compile(newRule(false, "pv0 + 1 > 2")));
+        assertNull(CompiledRule.compile(newRule(false, "Math.abs(pv0) > 2")));
+        assertNull(CompiledRule.compile(newRule(false, "pv5 > 2")));
+        assertNull(CompiledRule.compile(newRule(false, "!pv0 > 2")));
+    }
+
+    private void checkEquivalent(boolean outputExpValue, String... conditions) throws Exception {
+        RuleData rule = newRule(outputExpValue, conditions);
+        for (double[] input : INPUTS) {
+            VType[] values = new VType[input.length];
+            for (int i = 0; i < input.length; i++) {
+                values[i] = ValueFactory.newVDouble(input[i], ValueFactory.alarmNone(), ValueFactory.timeNow(),
+                        ValueFactory.displayNone());
+            }
+            checkEquivalent(rule, values);
+        }
+    }
+
+    private void checkEquivalent(RuleData rule, VType[] values) throws Exception {
+        IPV[] pvs = new IPV[values.length];
+        for (int i = 0; i < values.length; i++) {
+            pvs[i] = newPV("pv" + i, values[i]);
+        }
+
+        CompiledRule compiled = CompiledRule.compile(rule);
+        assertNotNull(rule.generateScript(), compiled);
+        Object expected = runScript(rule.generateScript(), pvs);
+        Object actual = compiled.evaluate(pvs);
+        if (expected instanceof Number && actual instanceof Number) {
+            assertEquals(rule.generateScript(), ((Number) expected).doubleValue(), ((Number) actual).doubleValue(),
+                    0);
+        } else {
+            assertEquals(rule.generateScript(), expected, actual);
+        }
+    }
+
+    private static RuleData newRule(boolean outputExpValue, String... conditions) {
+        RuleData rule = new RuleData(new TestModel());
+        rule.setPropId(outputExpValue ? AbstractWidgetModel.PROP_NAME : AbstractWidgetModel.PROP_VISIBLE);
+        rule.setOutputExpValue(outputExpValue);
+        rule.addPV(new PVTuple("loc://a", true));
+        rule.addPV(new PVTuple("loc://b", true));
+        for (int i = 0; i < conditions.length; i++) {
+            if (outputExpValue) {
+                rule.addExpression(new Expression(conditions[i], (i % 2 == 0) ? "pv1" : "\"text\""));
+            } else {
+                rule.addExpression(new Expression(conditions[i], i % 2 == 0));
+            }
+        }
+        return rule;
+    }
+
+    private static Object runScript(String script, IPV[] pvs) throws Exception {
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("javascript");
+        Bindings bindings = engine.createBindings();
+        RecordingWidget widget = new RecordingWidget();
+        bindings.put(ScriptService.WIDGET, widget);
+        bindings.put(ScriptService.PVS, pvs);
+        JavaScriptStore.bootstrapScriptEngine(engine, bindings);
+        engine.eval(script, bindings);
+        return widget.value;
+    }
+
+    private static IPV newPV(String name, VType value) {
+        return (IPV) Proxy.newProxyInstance(IPV.class.getClassLoader(), new Class<?>[] { IPV.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getName":
+                        return name;
+                    case "getValue":
+                        return value;
+                    case "isConnected":
+                    case "isStarted":
+                        return true;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    public static class RecordingWidget {
+
+        Object value;
+
+        public void setPropertyValue(String propId, Object value) {
+            this.value = value;
+        }
+    }
+
+    private static class TestModel extends AbstractWidgetModel {
+
+        @Override
+        protected void configureProperties() {
+        }
+
+        @Override
+        public String getTypeID() {
+            return "test";
+        }
+    }
+}
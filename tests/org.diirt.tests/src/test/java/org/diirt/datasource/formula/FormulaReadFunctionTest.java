@@ -0,0 +1,198 @@
+package org.diirt.datasource.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.diirt.datasource.ReadFunction;
+import org.junit.Test;
+
+/**
+ * Scans formula functions the way the scanner does, with and without changes of the arguments.
+ */
+public class FormulaReadFunctionTest {
+
+    private static final int SCANS = 100000;
+
+    @Test
+    public void testUnchangedArgumentsAreNotCalculatedAgain() {
+        CountingFunction sum = new CountingFunction("sum", Double.class, true);
+        AtomicReference<Object> arg1 = new AtomicReference<>(1.0);
+        AtomicReference<Object> arg2 = new AtomicReference<>(2.0);
+        FormulaReadFunction function = newFunction(Arrays.asList(sum), arg1, arg2);
+
+        Object first = function.readValue();
+        assertEquals("sum(1.0, 2.0)", first);
+        for (int i = 0; i < SCANS; i++) {
+            assertSame(first, function.readValue());
+        }
+        assertEquals(1, sum.calculations);
+
+        // Equal, but not the same values
+        arg1.set(new Double(1.0));
+        assertSame(first, function.readValue());
+        assertEquals(1, sum.calculations);
+    }
+
+    @Test
+    public void testChangedArgumentsAreCalculated() {
+        CountingFunction sum = new CountingFunction("sum", Double.class, true);
+        AtomicReference<Object> arg1 = new AtomicReference<>(0.0);
+        AtomicReference<Object> arg2 = new AtomicReference<>(2.0);
+        FormulaReadFunction function = newFunction(Arrays.asList(sum), arg1, arg2);
+
+        for (int i = 0; i < SCANS; i++) {
+            arg1.set((double) i);
+            assertEquals("sum(" + (double) i + ", 2.0)", function.readValue());
+        }
+        assertEquals(SCANS, sum.calculations);
+    }
+
+    @Test
+    public void testImpureFunctionsAreAlwaysCalculated() {
+        CountingFunction random = new CountingFunction("random", Double.class, false);
+        AtomicReference<Object> arg1 = new AtomicReference<>(1.0);
+        AtomicReference<Object> arg2 = new AtomicReference<>(2.0);
+        FormulaReadFunction function = newFunction(Arrays.asList(random), arg1, arg2);
+
+        for (int i = 0; i < SCANS; i++) {
+            function.readValue();
+        }
+        assertEquals(SCANS, random.calculations);
+    }
+
+    @Test
+    public void testMatchFollowsArgumentClasses() {
+        CountingFunction numbers = new CountingFunction("numbers", Double.class, true);
+        CountingFunction strings = new CountingFunction("strings", String.class, true);
+        AtomicReference<Object> arg1 = new AtomicReference<>(1.0);
+        AtomicReference<Object> arg2 = new AtomicReference<>(2.0);
+        FormulaReadFunction function = newFunction(Arrays.asList(numbers, strings), arg1, arg2);
+
+        for (int i = 0; i < 10; i++) {
+            arg1.set((double) i);
+            arg2.set((double) i);
+            assertEquals("numbers(" + (double) i + ", " + (double) i + ")", function.readValue());
+
+            arg1.set("a" + i);
+            arg2.set("b" + i);
+            assertEquals("strings(a" + i + ", b" + i + ")", function.readValue());
+        }
+        assertEquals(10, numbers.calculations);
+        assertEquals(10, strings.calculations);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNoMatch() {
+        CountingFunction numbers = new CountingFunction("numbers", Double.class, true);
+        FormulaReadFunction function = newFunction(Arrays.asList(numbers), new AtomicReference<>("a"),
+                new AtomicReference<>("b"));
+        function.readValue();
+    }
+
+    @Test
+    public void testNoMatchAfterMatchIsRestored() {
+        CountingFunction numbers = new CountingFunction("numbers", Double.class, true);
+        AtomicReference<Object> arg1 = new AtomicReference<>(1.0);
+        AtomicReference<Object> arg2 = new AtomicReference<>(2.0);
+        FormulaReadFunction function = newFunction(Arrays.asList(numbers), arg1, arg2);
+        assertEquals("numbers(1.0, 2.0)", function.readValue());
+
+        arg1.set("a");
+        arg2.set("b");
+        assertNoMatch(function);
+
+        arg1.set(3.0);
+        arg2.set(4.0);
+        assertEquals("numbers(3.0, 4.0)", function.readValue());
+
+        // The classes of the failed match were not accepted
+        arg1.set("c");
+        arg2.set("d");
+        assertNoMatch(function);
+        assertEquals(2, numbers.calculations);
+    }
+
+    private static void assertNoMatch(FormulaReadFunction function) {
+        try {
+            function.readValue();
+            fail("Expected no match");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Can't find match"));
+        }
+    }
+
+    @SafeVarargs
+    private static FormulaReadFunction newFunction(List<FormulaFunction> matches,
+            AtomicReference<Object>... arguments) {
+        List<ReadFunction<?>> argumentFunctions = new ArrayList<>();
+        for (AtomicReference<Object> argument : arguments) {
+            argumentFunctions.add(argument::get);
+        }
+        return new FormulaReadFunction(argumentFunctions, matches, "test");
+    }
+
+    /**
+     * Formats its two arguments, and counts how many times it did so.
+     */
+    private static class CountingFunction implements FormulaFunction {
+
+        private final String name;
+        private final Class<?> argumentType;
+        private final boolean pure;
+        int calculations;
+
+        CountingFunction(String name, Class<?> argumentType, boolean pure) {
+            this.name = name;
+            this.argumentType = argumentType;
+            this.pure = pure;
+        }
+
+        @Override
+        public boolean isPure() {
+            return pure;
+        }
+
+        @Override
+        public boolean isVarArgs() {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return name;
+        }
+
+        @Override
+        public List<Class<?>> getArgumentTypes() {
+            return Arrays.<Class<?>> asList(argumentType, argumentType);
+        }
+
+        @Override
+        public List<String> getArgumentNames() {
+            return Arrays.asList("arg1", "arg2");
+        }
+
+        @Override
+        public Class<?> getReturnType() {
+            return String.class;
+        }
+
+        @Override
+        public Object calculate(List<Object> args) {
+            calculations++;
+            return name + "(" + args.get(0) + ", " + args.get(1) + ")";
+        }
+    }
+}
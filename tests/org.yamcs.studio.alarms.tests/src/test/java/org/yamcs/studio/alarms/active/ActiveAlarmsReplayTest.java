@@ -0,0 +1,164 @@
+package org.yamcs.studio.alarms.active;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.yamcs.protobuf.AlarmData;
+import org.yamcs.protobuf.AlarmNotificationType;
+import org.yamcs.protobuf.ParameterAlarmData;
+import org.yamcs.protobuf.Pvalue.ParameterValue;
+import org.yamcs.protobuf.Yamcs.NamedObjectId;
+import org.yamcs.studio.core.ui.XtceTreeNode;
+
+/**
+ * Replays a stream of alarm updates in batches, the way {@link ActiveAlarmsView} drains them, and checks that the
+ * incrementally updated tree ends up showing exactly the active alarms.
+ */
+public class ActiveAlarmsReplayTest {
+
+    private static final int UPDATE_COUNT = 10000;
+    private static final int PARAMETER_COUNT = 2000;
+    private static final int BATCH_SIZE = 250;
+
+    private Shell shell;
+    private TreeViewer viewer;
+    private ActiveAlarmsContentProvider contentProvider;
+
+    @Before
+    public void setUp() {
+        shell = new Shell(Display.getDefault());
+        viewer = new TreeViewer(shell, SWT.SINGLE);
+        contentProvider = new ActiveAlarmsContentProvider();
+        viewer.setContentProvider(contentProvider);
+        viewer.setInput(contentProvider);
+    }
+
+    @After
+    public void tearDown() {
+        shell.dispose();
+    }
+
+    @Test
+    public void testLatestUpdateWins() {
+        Queue<AlarmData> queue = new ArrayDeque<>();
+        queue.add(alarm("/YSS/a", AlarmNotificationType.TRIGGERED, 1));
+        queue.add(alarm("/YSS/b", AlarmNotificationType.TRIGGERED, 2));
+        queue.add(alarm("/YSS/a", AlarmNotificationType.CLEARED, 1));
+
+        Map<String, AlarmData> latest = ActiveAlarmsView.takeLatest(queue);
+        assertTrue(queue.isEmpty());
+        assertEquals(2, latest.size());
+        assertEquals(AlarmNotificationType.CLEARED, latest.get("/YSS/a").getType());
+        assertEquals(AlarmNotificationType.TRIGGERED, latest.get("/YSS/b").getType());
+    }
+
+    @Test
+    public void testUpdateKeepsNode() {
+        apply(alarm("/YSS/SIMULATOR/a", AlarmNotificationType.TRIGGERED, 1));
+        XtceTreeNode<AlarmData> node = contentProvider.getElement("/YSS/SIMULATOR/a");
+
+        AlarmData update = alarm("/YSS/SIMULATOR/a", AlarmNotificationType.VALUE_UPDATED, 1);
+        apply(update);
+        assertSame(node, contentProvider.getElement("/YSS/SIMULATOR/a"));
+        assertSame(update, ((XtceAlarmNode) node).getAlarmData());
+
+        apply(alarm("/YSS/SIMULATOR/a", AlarmNotificationType.CLEARED, 1));
+        assertNull(contentProvider.getElement("/YSS/SIMULATOR/a"));
+        // Empty subsystems go as well
+        assertEquals(0, contentProvider.getElements(null).length);
+        assertEquals(0, viewer.getTree().getItemCount());
+    }
+
+    @Test
+    public void testReplay() {
+        Random random = new Random(42);
+        Map<String, AlarmData> expected = new HashMap<>();
+        Queue<AlarmData> queue = new ArrayDeque<>();
+        for (int i = 0; i < UPDATE_COUNT; i++) {
+            String qname = qualifiedName(random.nextInt(PARAMETER_COUNT));
+            AlarmData alarmData;
+            if (!expected.containsKey(qname)) {
+                alarmData = alarm(qname, AlarmNotificationType.TRIGGERED, i);
+            } else if (random.nextInt(3) == 0) {
+                alarmData = alarm(qname, AlarmNotificationType.CLEARED, i);
+            } else {
+                alarmData = alarm(qname, AlarmNotificationType.VALUE_UPDATED, i);
+            }
+            if (alarmData.getType() == AlarmNotificationType.CLEARED) {
+                expected.remove(qname);
+            } else {
+                expected.put(qname, alarmData);
+            }
+
+            queue.add(alarmData);
+            if (queue.size() == BATCH_SIZE || i == UPDATE_COUNT - 1) {
+                ActiveAlarmsView.takeLatest(queue)
+                        .forEach((name, data) -> ActiveAlarmsView.applyAlarmData(viewer, contentProvider, name, data));
+            }
+        }
+
+        for (int i = 0; i < PARAMETER_COUNT; i++) {
+            String qname = qualifiedName(i);
+            XtceTreeNode<AlarmData> node = contentProvider.getElement(qname);
+            if (expected.containsKey(qname)) {
+                assertSame(qname, expected.get(qname), ((XtceAlarmNode) node).getAlarmData());
+            } else {
+                assertNull(qname, node);
+            }
+        }
+
+        // The viewer shows the same tree as the model
+        viewer.expandAll();
+        assertEquals(expected.size(), countAlarmItems(viewer.getTree().getItems()));
+    }
+
+    private void apply(AlarmData alarmData) {
+        Queue<AlarmData> queue = new ArrayDeque<>();
+        queue.add(alarmData);
+        ActiveAlarmsView.takeLatest(queue)
+                .forEach((name, data) -> ActiveAlarmsView.applyAlarmData(viewer, contentProvider, name, data));
+    }
+
+    private static int countAlarmItems(TreeItem[] items) {
+        int count = 0;
+        for (TreeItem item : items) {
+            if (item.getData() instanceof XtceAlarmNode) {
+                count++;
+            } else {
+                assertTrue(item.getItemCount() > 0);
+                count += countAlarmItems(item.getItems());
+            }
+        }
+        return count;
+    }
+
+    private static String qualifiedName(int index) {
+        return "/YSS/SUB" + (index % 20) + "/GROUP" + (index % 7) + "/P" + index;
+    }
+
+    private static AlarmData alarm(String qname, AlarmNotificationType type, int seqNum) {
+        return AlarmData.newBuilder()
+                .setType(type)
+                .setSeqNum(seqNum)
+                .setParameterDetail(ParameterAlarmData.newBuilder()
+                        .setTriggerValue(ParameterValue.newBuilder()
+                                .setId(NamedObjectId.newBuilder().setName(qname))))
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package org.yamcs.studio.commanding.cmdhist;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.yamcs.protobuf.Commanding.CommandHistoryAttribute;
+import org.yamcs.protobuf.Commanding.CommandHistoryEntry;
+import org.yamcs.protobuf.Commanding.CommandId;
+import org.yamcs.protobuf.Yamcs.Value;
+
+public class CommandHistoryRecordContentProviderTest {
+
+    private static final int MAX_RECORDS = 3;
+
+    private Shell shell;
+    private TableViewer tableViewer;
+    private CommandHistoryRecordContentProvider provider;
+
+    @Before
+    public void setUp() {
+        shell = new Shell(Display.getDefault());
+        tableViewer = new TableViewer(shell, SWT.MULTI | SWT.VIRTUAL);
+        provider = new CommandHistoryRecordContentProvider(tableViewer, new CommandHistorySorter(), MAX_RECORDS);
+        tableViewer.setContentProvider(provider);
+    }
+
+    @After
+    public void tearDown() {
+        shell.dispose();
+    }
+
+    @Test
+    public void testBatchIsSorted() {
+        provider.processCommandHistoryEntries(Arrays.asList(entry(3), entry(1), entry(2)));
+
+        assertEquals(3, provider.getRowCount());
+        assertEquals(3, tableViewer.getTable().getItemCount());
+        assertGenerationTimes(1, 2, 3);
+    }
+
+    @Test
+    public void testUpdatesInBatchAreMerged() {
+        CommandHistoryEntry update = entry(1).toBuilder()
+                .addAttr(CommandHistoryAttribute.newBuilder()
+                        .setName(CommandHistoryRecordContentProvider.ATTR_COMMENT)
+                        .setValue(Value.newBuilder().setType(Value.Type.STRING).setStringValue("hello")))
+                .build();
+        provider.processCommandHistoryEntries(Arrays.asList(entry(1), entry(2), update));
+
+        assertEquals(2, provider.getRowCount());
+        assertEquals("hello", provider.getElementAt(0).getComment());
+    }
+
+    @Test
+    public void testOldestRecordsAreEvicted() {
+        provider.processCommandHistoryEntries(Arrays.asList(entry(5), entry(4)));
+        provider.processCommandHistoryEntries(Arrays.asList(entry(3), entry(2), entry(1)));
+
+        // Eviction is by arrival, not by sort order
+        assertEquals(MAX_RECORDS, provider.getRowCount());
+        assertGenerationTimes(1, 2, 3);
+
+        // Also when a single batch exceeds the maximum
+        provider.processCommandHistoryEntries(Arrays.asList(entry(10), entry(11), entry(12), entry(13)));
+        assertGenerationTimes(11, 12, 13);
+    }
+
+    @Test
+    public void testSelectionFollowsRecordsWithScrollLock() {
+        provider.enableScrollLock(true);
+        provider.processCommandHistoryEntries(Arrays.asList(entry(2), entry(4)));
+        tableViewer.getTable().setSelection(new int[] { 0, 1 });
+        CommandHistoryRecord first = provider.getElementAt(0);
+        CommandHistoryRecord second = provider.getElementAt(1);
+
+        // Sorted in front of the selected records
+        provider.processCommandHistoryEntry(entry(1));
+
+        assertArrayEquals(new int[] { 1, 2 }, tableViewer.getTable().getSelectionIndices());
+        assertSame(first, provider.getElementAt(1));
+        assertSame(second, provider.getElementAt(2));
+
+        // Evicted records are no longer selected
+        provider.processCommandHistoryEntry(entry(0));
+        assertArrayEquals(new int[] { 2 }, tableViewer.getTable().getSelectionIndices());
+        assertSame(second, provider.getElementAt(2));
+    }
+
+    @Test
+    public void testLastRecordIsSelectedWithoutScrollLock() {
+        provider.processCommandHistoryEntries(Arrays.asList(entry(2), entry(1)));
+
+        assertArrayEquals(new int[] { 0 }, tableViewer.getTable().getSelectionIndices());
+    }
+
+    private void assertGenerationTimes(long... expected) {
+        long[] actual = new long[provider.getRowCount()];
+        for (int i = 0; i < actual.length; i++) {
+            actual[i] = provider.getElementAt(i).getRawGenerationTime();
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+    private static CommandHistoryEntry entry(long generationTime) {
+        return CommandHistoryEntry.newBuilder()
+                .setCommandId(CommandId.newBuilder()
+                        .setGenerationTime(generationTime)
+                        .setOrigin("test")
+                        .setSequenceNumber((int) generationTime)
+                        .setCommandName("/YSS/SIMULATOR/SWITCH_VOLTAGE_ON"))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package org.yamcs.studio.core.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.yamcs.protobuf.Yamcs.NamedObjectId;
+import org.yamcs.protobuf.Yamcs.NamedObjectList;
+
+public class ParameterSubscriptionBundlerTest {
+
+    private static final String SUBSCRIBE = "subscribe";
+    private static final String UNSUBSCRIBE = "unsubscribe";
+
+    @Test
+    public void testDuplicatesAreMerged() {
+        Map<String, List<NamedObjectId>> merged = ParameterSubscriptionBundler.merge(Arrays.asList(
+                request(SUBSCRIBE, "/a", "/b"),
+                request(SUBSCRIBE, "/b", "/c"),
+                request(SUBSCRIBE, "/a")));
+
+        assertEquals(1, merged.size());
+        assertEquals(ids("/a", "/b", "/c"), new HashSet<>(merged.get(SUBSCRIBE)));
+        assertEquals(3, merged.get(SUBSCRIBE).size());
+    }
+
+    @Test
+    public void testLastOperationWins() {
+        // Closing and reopening a display
+        Map<String, List<NamedObjectId>> merged = ParameterSubscriptionBundler.merge(Arrays.asList(
+                request(SUBSCRIBE, "/a"),
+                request(UNSUBSCRIBE, "/a"),
+                request(UNSUBSCRIBE, "/b"),
+                request(SUBSCRIBE, "/a")));
+
+        assertEquals(2, merged.size());
+        assertEquals(Arrays.asList(id("/b")), merged.get(UNSUBSCRIBE));
+        assertEquals(Arrays.asList(id("/a")), merged.get(SUBSCRIBE));
+    }
+
+    @Test
+    public void testOperationsAreOrderedByLastOccurrence() {
+        Map<String, List<NamedObjectId>> merged = ParameterSubscriptionBundler.merge(Arrays.asList(
+                request(SUBSCRIBE, "/a"),
+                request(UNSUBSCRIBE, "/b"),
+                request(UNSUBSCRIBE, "/a")));
+
+        assertEquals(Arrays.asList(UNSUBSCRIBE), Arrays.asList(merged.keySet().toArray()));
+        assertEquals(ids("/a", "/b"), new HashSet<>(merged.get(UNSUBSCRIBE)));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(ParameterSubscriptionBundler.merge(Arrays.asList()).isEmpty());
+    }
+
+    private static ParameterWebSocketRequest request(String operation, String... names) {
+        NamedObjectList.Builder list = NamedObjectList.newBuilder();
+        for (String name : names) {
+            list.addList(id(name));
+        }
+        return new ParameterWebSocketRequest(operation, list.build());
+    }
+
+    private static HashSet<NamedObjectId> ids(String... names) {
+        HashSet<NamedObjectId> ids = new HashSet<>();
+        for (String name : names) {
+            ids.add(id(name));
+        }
+        return ids;
+    }
+
+    private static NamedObjectId id(String name) {
+        return NamedObjectId.newBuilder().setName(name).build();
+    }
+}
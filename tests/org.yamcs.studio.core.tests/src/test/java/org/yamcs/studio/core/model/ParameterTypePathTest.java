@@ -0,0 +1,53 @@
+package org.yamcs.studio.core.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.yamcs.protobuf.Mdb.MemberInfo;
+import org.yamcs.protobuf.Mdb.ParameterTypeInfo;
+
+public class ParameterTypePathTest {
+
+    @Test
+    public void testToTypePath() {
+        assertEquals("", ParameterCatalogue.toTypePath(""));
+        assertEquals(".a.b", ParameterCatalogue.toTypePath(".a.b"));
+        assertEquals(".f[].heh", ParameterCatalogue.toTypePath(".f[3].heh"));
+        assertEquals("[][]", ParameterCatalogue.toTypePath("[12][0]"));
+        assertEquals(".f[].g[].x", ParameterCatalogue.toTypePath(".f[1].g[22].x"));
+    }
+
+    @Test
+    public void testIndexMemberTypes() {
+        ParameterTypeInfo floatType = ParameterTypeInfo.newBuilder().setEngType("float").build();
+        ParameterTypeInfo intType = ParameterTypeInfo.newBuilder().setEngType("integer").build();
+        ParameterTypeInfo entryType = ParameterTypeInfo.newBuilder()
+                .setEngType("aggregate")
+                .addMember(MemberInfo.newBuilder().setName("x").setType(floatType))
+                .build();
+        ParameterTypeInfo.Builder arrayType = ParameterTypeInfo.newBuilder().setEngType("array");
+        arrayType.getArrayInfoBuilder().setType(entryType);
+        ParameterTypeInfo rootType = ParameterTypeInfo.newBuilder()
+                .setEngType("aggregate")
+                .addMember(MemberInfo.newBuilder().setName("f").setType(arrayType))
+                .addMember(MemberInfo.newBuilder().setName("g").setType(intType))
+                .build();
+
+        Map<String, ParameterTypeInfo> typesByPath = new HashMap<>();
+        ParameterCatalogue.indexMemberTypes(rootType, "/a/b", typesByPath);
+
+        assertEquals(4, typesByPath.size());
+        assertEquals(arrayType.build(), typesByPath.get("/a/b.f"));
+        assertEquals(entryType, typesByPath.get("/a/b.f[]"));
+        assertEquals(floatType, typesByPath.get("/a/b.f[].x"));
+        assertEquals(intType, typesByPath.get("/a/b.g"));
+
+        // Requested member paths resolve to the same keys
+        assertEquals(floatType, typesByPath.get("/a/b" + ParameterCatalogue.toTypePath(".f[7].x")));
+        assertNull(typesByPath.get("/a/b" + ParameterCatalogue.toTypePath(".f[7].y")));
+    }
+}
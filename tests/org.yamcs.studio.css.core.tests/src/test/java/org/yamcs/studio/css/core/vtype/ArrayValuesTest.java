@@ -0,0 +1,97 @@
+package org.yamcs.studio.css.core.vtype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.diirt.util.array.ArrayBoolean;
+import org.diirt.util.array.ArrayDouble;
+import org.diirt.util.array.ArrayInt;
+import org.diirt.util.array.ArrayLong;
+import org.diirt.util.array.ListDouble;
+import org.junit.Test;
+import org.yamcs.protobuf.Pvalue.ParameterValue;
+import org.yamcs.protobuf.Yamcs.NamedObjectId;
+import org.yamcs.protobuf.Yamcs.Value;
+import org.yamcs.protobuf.Yamcs.Value.Type;
+
+public class ArrayValuesTest {
+
+    @Test
+    public void testDoubles() {
+        Value.Builder array = Value.newBuilder().setType(Type.ARRAY);
+        for (double d : new double[] { 1.5, -2, Double.NaN }) {
+            array.addArrayValue(Value.newBuilder().setType(Type.DOUBLE).setDoubleValue(d));
+        }
+        ArrayDouble data = ArrayValues.toArrayDouble(array.build());
+        assertEquals(3, data.size());
+        assertEquals(1.5, data.getDouble(0), 0);
+        assertEquals(-2, data.getDouble(1), 0);
+        assertTrue(Double.isNaN(data.getDouble(2)));
+    }
+
+    @Test
+    public void testSint32() {
+        Value.Builder array = Value.newBuilder().setType(Type.ARRAY);
+        for (int i : new int[] { Integer.MIN_VALUE, 0, Integer.MAX_VALUE }) {
+            array.addArrayValue(Value.newBuilder().setType(Type.SINT32).setSint32Value(i));
+        }
+        ArrayInt data = ArrayValues.toArrayInt(array.build());
+        assertEquals(Integer.MIN_VALUE, data.getInt(0));
+        assertEquals(0, data.getInt(1));
+        assertEquals(Integer.MAX_VALUE, data.getInt(2));
+    }
+
+    @Test
+    public void testUint32IsWidenedWithoutSign() {
+        Value.Builder array = Value.newBuilder().setType(Type.ARRAY);
+        array.addArrayValue(Value.newBuilder().setType(Type.UINT32).setUint32Value(0xFFFFFFFF));
+        array.addArrayValue(Value.newBuilder().setType(Type.UINT32).setUint32Value(7));
+        ArrayLong data = ArrayValues.toArrayLongFromUint32(array.build());
+        assertEquals(4294967295L, data.getLong(0));
+        assertEquals(7L, data.getLong(1));
+    }
+
+    @Test
+    public void testBooleans() {
+        Value.Builder array = Value.newBuilder().setType(Type.ARRAY);
+        array.addArrayValue(Value.newBuilder().setType(Type.BOOLEAN).setBooleanValue(true));
+        array.addArrayValue(Value.newBuilder().setType(Type.BOOLEAN).setBooleanValue(false));
+        ArrayBoolean data = ArrayValues.toArrayBoolean(array.build());
+        assertEquals(2, data.size());
+        assertTrue(data.getBoolean(0));
+        assertEquals(false, data.getBoolean(1));
+    }
+
+    @Test
+    public void testEmptyArray() {
+        Value empty = Value.newBuilder().setType(Type.ARRAY).build();
+        assertEquals(0, ArrayValues.toArrayDouble(empty).size());
+        assertEquals(0, ArrayValues.toArrayLongFromSint64(empty).size());
+    }
+
+    @Test
+    public void testVTypeDecodesOnce() {
+        Value.Builder array = Value.newBuilder().setType(Type.ARRAY);
+        for (int i = 0; i < 1000; i++) {
+            array.addArrayValue(Value.newBuilder().setType(Type.DOUBLE).setDoubleValue(i));
+        }
+        ParameterValue pval = ParameterValue.newBuilder()
+                .setId(NamedObjectId.newBuilder().setName("/a/b"))
+                .setGenerationTimeUTC("2019-01-01T00:00:00.000")
+                .setEngValue(array)
+                .build();
+
+        DoubleArrayVType vtype = new DoubleArrayVType(pval);
+        assertEquals(1, vtype.getSizes().size());
+        assertEquals(1000, vtype.getSizes().getInt(0));
+
+        ListDouble data = vtype.getData();
+        assertSame(data, vtype.getData());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, data.getDouble(i), 0);
+        }
+        // Still a wrapped primitive array, for the fast paths of diirt
+        assertTrue(data instanceof ArrayDouble);
+    }
+}
@@ -0,0 +1,71 @@
+package org.yamcs.studio.eventlog;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Test;
+import org.yamcs.protobuf.Yamcs.Event;
+import org.yamcs.protobuf.Yamcs.Event.EventSeverity;
+
+public class ColoringRuleTest {
+
+    private static final RGB BLACK = new RGB(0, 0, 0);
+
+    private static Event event(EventSeverity severity, String type, String source) {
+        return Event.newBuilder().setMessage("a message")
+                .setSource(source)
+                .setGenerationTime(123L)
+                .setReceptionTime(456L)
+                .setSeqNumber(123)
+                .setSeverity(severity)
+                .setType(type)
+                .build();
+    }
+
+    private static ColoringRule rule(String expression) {
+        return new ColoringRule(expression, BLACK, BLACK);
+    }
+
+    @Test
+    public void testConjunction() {
+        ColoringRule rule = rule("severity == WARNING && type == LVPDU");
+        assertTrue(rule.isValid());
+        assertTrue(rule.matches(event(EventSeverity.WARNING, "LVPDU", "source")));
+        assertFalse(rule.matches(event(EventSeverity.WARNING, "other", "source")));
+        assertFalse(rule.matches(event(EventSeverity.INFO, "LVPDU", "source")));
+    }
+
+    @Test
+    public void testPrecedence() {
+        // && binds stronger than ||
+        ColoringRule rule = rule("source == a || severity == ERROR && type == b");
+        assertTrue(rule.matches(event(EventSeverity.INFO, "x", "a")));
+        assertTrue(rule.matches(event(EventSeverity.ERROR, "b", "x")));
+        assertFalse(rule.matches(event(EventSeverity.ERROR, "x", "x")));
+    }
+
+    @Test
+    public void testNegation() {
+        ColoringRule rule = rule("severity != INFO");
+        assertTrue(rule.matches(event(EventSeverity.WARNING, "x", "x")));
+        assertFalse(rule.matches(event(EventSeverity.INFO, "x", "x")));
+    }
+
+    @Test
+    public void testEmptyExpressionMatchesAll() {
+        ColoringRule rule = rule("  ");
+        assertTrue(rule.isValid());
+        assertTrue(rule.matches(event(EventSeverity.INFO, "x", "x")));
+    }
+
+    @Test
+    public void testInvalidExpressionNeverMatches() {
+        for (String expression : new String[] { "severity = WARNING", "type == a &&", "message == a",
+                "type == a & source == b" }) {
+            ColoringRule rule = rule(expression);
+            assertFalse(expression, rule.isValid());
+            assertFalse(expression, rule.matches(event(EventSeverity.WARNING, "a", "b")));
+        }
+    }
+}